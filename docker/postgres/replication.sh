@@ -0,0 +1,6 @@
+#!/bin/sh
+# Runs once when the db volume is first initialised: lets the db-replica service stream from this instance
+set -e
+psql -v ON_ERROR_STOP=1 -U "$POSTGRES_USER" -d "$POSTGRES_DB" \
+    -c "CREATE ROLE replicator WITH REPLICATION LOGIN PASSWORD '${REPLICATION_PASSWORD:-replicator}'"
+echo "host replication replicator all scram-sha-256" >> "$PGDATA/pg_hba.conf"
@@ -0,0 +1,113 @@
+-- Search benchmark: substring (LIKE) vs full-text (search_vector) filtering
+-- Run against a database migrated by Flyway (V7 or later), e.g.
+--   psql -U postgres -d taskdb -f dbscript/benchmarks/search_benchmark.sql
+-- Everything runs inside one transaction and is rolled back at the end. Seeding takes several minutes.
+
+BEGIN;
+
+SELECT setseed(0.42);
+
+-- ========================================
+-- SEED: one heavy user with 300k tasks, plus 700k tasks spread over 100 other users
+-- ========================================
+
+INSERT INTO users (id, username, email, hashed_password)
+SELECT ('00000000-0000-0000-0000-' || lpad(g::text, 12, '0'))::uuid,
+       'bench_user_' || g,
+       'bench_user_' || g || '@example.com',
+       'x'
+FROM generate_series(0, 100) g;
+
+-- 32 everyday words plus a long tail of 20k rarer tokens; picks are skewed towards the low ids.
+-- 'payroll' lands in roughly 4% of tasks, the token for id 5000 ('xa35fe7f') in well under 0.1%
+CREATE TEMP TABLE bench_words AS
+SELECT i AS id,
+       CASE WHEN i <= 32
+            THEN (ARRAY['review', 'deploy', 'invoice', 'client', 'meeting', 'report', 'design', 'database',
+                        'migration', 'release', 'budget', 'hiring', 'roadmap', 'security', 'audit', 'backup',
+                        'incident', 'customer', 'onboarding', 'analytics', 'dashboard', 'refactor', 'testing',
+                        'documentation', 'proposal', 'contract', 'vendor', 'payroll', 'training', 'support',
+                        'feedback', 'planning'])[i]
+            ELSE 'x' || substr(md5(i::text), 1, 7)
+       END AS word
+FROM generate_series(1, 20032) i;
+
+CREATE TEMP TABLE bench_tasks AS
+SELECT g,
+       (SELECT string_agg(w[1 + floor(power(random(), 3) * 20031)::int], ' ' ORDER BY i)
+        FROM generate_series(1, 3 + g % 2) i) AS title,
+       (SELECT string_agg(w[1 + floor(power(random(), 3) * 20031)::int], ' ' ORDER BY i)
+        FROM generate_series(1, (g::bigint * 7919) % 61) i) AS description
+FROM generate_series(1, 1000000) g,
+     (SELECT array_agg(word ORDER BY id) AS w FROM bench_words) v;
+
+INSERT INTO tasks (id, title, description, status, priority, due_date, created_at, updated_at, user_id)
+SELECT gen_random_uuid(),
+       coalesce(title, 'task ' || g),
+       description,
+       (ARRAY['TODO', 'IN_PROGRESS', 'DONE'])[1 + g % 3]::task_status,
+       (ARRAY['low', 'medium', 'high'])[1 + g % 3],
+       TIMESTAMP '2026-01-01' + (g % 365) * INTERVAL '1 day',
+       TIMESTAMP '2025-01-01' + g * INTERVAL '1 minute',
+       TIMESTAMP '2025-01-01' + g * INTERVAL '1 minute',
+       CASE WHEN g <= 300000
+            THEN '00000000-0000-0000-0000-000000000000'::uuid
+            ELSE ('00000000-0000-0000-0000-' || lpad((1 + g % 100)::text, 12, '0'))::uuid
+       END
+FROM bench_tasks;
+
+-- Move freshly inserted entries out of the GIN pending list, as autovacuum would
+SELECT gin_clean_pending_list('idx_tasks_search_vector');
+ANALYZE tasks;
+
+-- ========================================
+-- SUBSTRING: the LIKE filter (searchMode=SUBSTRING)
+-- ========================================
+
+-- Common word
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM tasks t WHERE t.user_id = '00000000-0000-0000-0000-000000000000'
+  AND (LOWER(t.title) LIKE '%payroll%' OR LOWER(t.description) LIKE '%payroll%')
+ORDER BY t.created_at DESC LIMIT 25;
+
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT COUNT(*) FROM tasks t WHERE t.user_id = '00000000-0000-0000-0000-000000000000'
+  AND (LOWER(t.title) LIKE '%payroll%' OR LOWER(t.description) LIKE '%payroll%');
+
+-- Rare word
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM tasks t WHERE t.user_id = '00000000-0000-0000-0000-000000000000'
+  AND (LOWER(t.title) LIKE '%xa35fe7f%' OR LOWER(t.description) LIKE '%xa35fe7f%')
+ORDER BY t.created_at DESC LIMIT 25;
+
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT COUNT(*) FROM tasks t WHERE t.user_id = '00000000-0000-0000-0000-000000000000'
+  AND (LOWER(t.title) LIKE '%xa35fe7f%' OR LOWER(t.description) LIKE '%xa35fe7f%');
+
+-- ========================================
+-- FULL-TEXT: the default search, ranked by relevance
+-- ========================================
+
+-- Common word
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM (SELECT t.*, ts_rank_cd(t.search_vector, to_tsquery('english', 'payroll:*')) AS rank
+               FROM tasks t WHERE t.user_id = '00000000-0000-0000-0000-000000000000'
+                 AND t.search_vector @@ to_tsquery('english', 'payroll:*')) t
+ORDER BY t.rank DESC, t.created_at DESC LIMIT 25;
+
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT COUNT(*) FROM tasks t WHERE t.user_id = '00000000-0000-0000-0000-000000000000'
+  AND t.search_vector @@ to_tsquery('english', 'payroll:*');
+
+-- Rare word
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM (SELECT t.*, ts_rank_cd(t.search_vector, to_tsquery('english', 'xa35fe7f:*')) AS rank
+               FROM tasks t WHERE t.user_id = '00000000-0000-0000-0000-000000000000'
+                 AND t.search_vector @@ to_tsquery('english', 'xa35fe7f:*')) t
+ORDER BY t.rank DESC, t.created_at DESC LIMIT 25;
+
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT COUNT(*) FROM tasks t WHERE t.user_id = '00000000-0000-0000-0000-000000000000'
+  AND t.search_vector @@ to_tsquery('english', 'xa35fe7f:*');
+
+ROLLBACK;
@@ -0,0 +1,109 @@
+#!/usr/bin/env bash
+# Startup time and memory of the application in each available launch mode.
+#
+# Times how long each mode takes from launch until /actuator/health reports UP, and reads the process's resident
+# set size at that moment. Needs a reachable database, like the application itself.
+#
+#   ./mvnw package -Pfast-start -DskipTests               # jar, aot and aot+cds modes
+#   ./mvnw package -Pnative -DskipTests                   # native mode, on a GraalVM JDK
+#   scripts/startup-comparison.sh [runs]                  # default 5 runs per mode
+#
+# The jar, aot and aot+cds modes all run the same extracted jar from target/fast-start, so the only difference
+# between them is the JVM options. Extra JVM options (e.g. -Xmx512m) can be passed in JAVA_OPTS; application
+# arguments in APP_ARGS. Modes whose artifacts are missing are skipped.
+
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+RUNS="${1:-5}"
+MANAGEMENT_PORT="${MANAGEMENT_PORT:-8081}"
+HEALTH_URL="http://localhost:${MANAGEMENT_PORT}/actuator/health"
+TIMEOUT_SECONDS="${TIMEOUT_SECONDS:-120}"
+JAVA="${JAVA_HOME:+$JAVA_HOME/bin/}java"
+FAST_START_DIR="target/fast-start"
+JAR="mini-task-tracker-0.0.1-SNAPSHOT.jar"
+NATIVE_BINARY="target/mini-task-tracker"
+LOG="target/startup-comparison.log"
+
+MODES=()
+if [ -f "$FAST_START_DIR/$JAR" ]; then
+    MODES+=("jar")
+    MODES+=("aot")
+    if [ -f "$FAST_START_DIR/application.jsa" ]; then
+        MODES+=("aot+cds")
+    fi
+fi
+if [ -x "$NATIVE_BINARY" ]; then
+    MODES+=("native")
+fi
+if [ ${#MODES[@]} -eq 0 ]; then
+    echo "Nothing to run, build with -Pfast-start and/or -Pnative first" >&2
+    exit 1
+fi
+
+if curl -s -o /dev/null "$HEALTH_URL"; then
+    echo "Something is already listening on port $MANAGEMENT_PORT, stop it first" >&2
+    exit 1
+fi
+
+# Runs in the background subshell and replaces it, so that $! is the application's own process
+launch() {
+    # shellcheck disable=SC2086
+    case "$1" in
+        jar) cd "$FAST_START_DIR" && exec "$JAVA" ${JAVA_OPTS:-} -jar "$JAR" ${APP_ARGS:-} ;;
+        aot) cd "$FAST_START_DIR" && exec "$JAVA" ${JAVA_OPTS:-} -Dspring.aot.enabled=true -jar "$JAR" ${APP_ARGS:-} ;;
+        aot+cds) cd "$FAST_START_DIR" && exec "$JAVA" ${JAVA_OPTS:-} -XX:SharedArchiveFile=application.jsa \
+            -Dspring.aot.enabled=true -jar "$JAR" ${APP_ARGS:-} ;;
+        native) exec "$NATIVE_BINARY" ${APP_ARGS:-} ;;
+    esac
+}
+
+now_millis() {
+    date +%s%3N
+}
+
+# Prints "<milliseconds until UP> <RSS in MB>" for one run of a mode
+measure() {
+    local mode="$1" started pid elapsed rss_kb
+    started=$(now_millis)
+    launch "$mode" >>"$LOG" 2>&1 &
+    pid=$!
+    until curl -s "$HEALTH_URL" 2>/dev/null | grep -q '"status":"UP"'; do
+        if ! kill -0 "$pid" 2>/dev/null; then
+            echo "$mode exited before becoming healthy, see $LOG" >&2
+            return 1
+        fi
+        if [ $(( $(now_millis) - started )) -gt $(( TIMEOUT_SECONDS * 1000 )) ]; then
+            kill "$pid"
+            echo "$mode was not healthy after ${TIMEOUT_SECONDS}s, see $LOG" >&2
+            return 1
+        fi
+        sleep 0.05
+    done
+    elapsed=$(( $(now_millis) - started ))
+    rss_kb=$(ps -o rss= -p "$pid" | tr -d ' ')
+    kill "$pid"
+    wait "$pid" 2>/dev/null || true
+    echo "$elapsed $(( rss_kb / 1024 ))"
+}
+
+median() {
+    sort -n | awk '{ values[NR] = $1 } END { print (NR % 2 ? values[(NR + 1) / 2] : int((values[NR / 2] + values[NR / 2 + 1]) / 2)) }'
+}
+
+: >"$LOG"
+printf "%-8s %6s %14s %14s %12s\n" "mode" "runs" "median ms" "min ms" "median RSS MB"
+for mode in "${MODES[@]}"; do
+    times=()
+    rss=()
+    for _ in $(seq 1 "$RUNS"); do
+        read -r elapsed rss_mb < <(measure "$mode")
+        times+=("$elapsed")
+        rss+=("$rss_mb")
+    done
+    printf "%-8s %6s %14s %14s %12s\n" "$mode" "$RUNS" \
+        "$(printf "%s\n" "${times[@]}" | median)" \
+        "$(printf "%s\n" "${times[@]}" | sort -n | head -1)" \
+        "$(printf "%s\n" "${rss[@]}" | median)"
+done
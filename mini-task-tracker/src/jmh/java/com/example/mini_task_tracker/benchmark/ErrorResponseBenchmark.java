@@ -0,0 +1,39 @@
+package com.example.mini_task_tracker.benchmark;
+
+import com.example.mini_task_tracker.exception.CustomException;
+import com.example.mini_task_tracker.exception.GlobalExceptionHandler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.concurrent.TimeUnit;
+
+// Building error responses, including creating the exception (and its stack trace) as a failing request does
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ErrorResponseBenchmark {
+
+    private final GlobalExceptionHandler handler = new GlobalExceptionHandler();
+
+    @Benchmark
+    public ResponseEntity<?> customException() {
+        return handler.handleCustomException(new CustomException("Task not found", HttpStatus.NOT_FOUND));
+    }
+
+    @Benchmark
+    public ResponseEntity<?> unexpectedException() {
+        return handler.handleGlobalException(new IllegalStateException("Something went wrong"));
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.mini_task_tracker.benchmark;
+
+import com.example.mini_task_tracker.util.JwtClaims;
+import com.example.mini_task_tracker.util.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of authenticating one request: the filter's previous path (four parses, each building its own key and
+ * parser) against a single parse with a shared parser, and against a hit in the verified-token cache. Also the
+ * cost of issuing a token at login.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtVerificationBenchmark {
+
+    private static final String SECRET = "404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970";
+    private static final long EXPIRATION = 86_400_000L;
+
+    private JwtUtil uncached;
+    private JwtUtil cached;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        uncached = new JwtUtil(SECRET, EXPIRATION, 0);
+        cached = new JwtUtil(SECRET, EXPIRATION, 10_000);
+        token = cached.generateToken("john@example.com", UUID.randomUUID().toString());
+        cached.verifyToken(token);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return cached.generateToken("john@example.com", "a0eebc99-9c0b-4ef8-bb6d-6bb9bd380a11");
+    }
+
+    @Benchmark
+    public void previousFilterPath(Blackhole blackhole) {
+        // extractUsername, extractUserId, then validateToken's extractUsername and extractExpiration
+        String username = previousParse(token).getSubject();
+        String userId = previousParse(token).get("userId", String.class);
+        boolean valid = previousParse(token).getSubject().equals(username)
+                && !previousParse(token).getExpiration().before(new Date());
+        blackhole.consume(userId);
+        blackhole.consume(valid);
+    }
+
+    @Benchmark
+    public JwtClaims singleParse() {
+        return uncached.verifyToken(token);
+    }
+
+    @Benchmark
+    public JwtClaims verifiedTokenCache() {
+        return cached.verifyToken(token);
+    }
+
+    private Claims previousParse(String token) {
+        return Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .build()
+                .parseSignedClaims(token)
+                .getPayload();
+    }
+}
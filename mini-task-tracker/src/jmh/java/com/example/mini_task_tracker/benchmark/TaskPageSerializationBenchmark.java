@@ -0,0 +1,69 @@
+package com.example.mini_task_tracker.benchmark;
+
+import com.example.mini_task_tracker.dto.PageResponse;
+import com.example.mini_task_tracker.dto.TaskResponse;
+import com.example.mini_task_tracker.entity.TaskStatus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// Serializing a task list response the way the API does (a PageResponse of TaskResponses)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TaskPageSerializationBenchmark {
+
+    @Param({"25", "100"})
+    private int pageSize;
+
+    private final JsonMapper jsonMapper = new JsonMapper();
+    private PageResponse<TaskResponse> page;
+
+    @Setup
+    public void setUp() {
+        TaskStatus[] statuses = TaskStatus.values();
+        UUID userId = UUID.randomUUID();
+        Instant now = Instant.now();
+        List<TaskResponse> tasks = new ArrayList<>();
+        for (int i = 0; i < pageSize; i++) {
+            tasks.add(TaskResponse.builder()
+                    .id(UUID.randomUUID())
+                    .title("Task " + i)
+                    .description(i % 3 == 0 ? null : "Description of task " + i + " with a few more words in it")
+                    .status(statuses[i % statuses.length])
+                    .priority(i % 2 == 0 ? "HIGH" : "LOW")
+                    .dueDate(i % 4 == 0 ? null : now.plusSeconds(i * 3_600L))
+                    .createdAt(now.minusSeconds(i * 60L))
+                    .updatedAt(now)
+                    .userId(userId)
+                    .version((long) i)
+                    .build());
+        }
+        page = PageResponse.of(new PageImpl<>(tasks, PageRequest.of(0, pageSize), 10_000));
+    }
+
+    @Benchmark
+    public byte[] serialize() {
+        return jsonMapper.writeValueAsBytes(page);
+    }
+}
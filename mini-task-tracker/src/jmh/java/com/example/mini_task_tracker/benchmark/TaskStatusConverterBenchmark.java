@@ -0,0 +1,36 @@
+package com.example.mini_task_tracker.benchmark;
+
+import com.example.mini_task_tracker.converter.TaskStatusConverter;
+import com.example.mini_task_tracker.entity.TaskStatus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+// Entity status to column value and back, for every status; runs for each task read or written
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TaskStatusConverterBenchmark {
+
+    private final TaskStatusConverter converter = new TaskStatusConverter();
+    private final TaskStatus[] statuses = TaskStatus.values();
+
+    @Benchmark
+    public void roundTrip(Blackhole blackhole) {
+        for (TaskStatus status : statuses) {
+            blackhole.consume(converter.convertToEntityAttribute(converter.convertToDatabaseColumn(status)));
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.mini_task_tracker.service.impl;
+
+import com.example.mini_task_tracker.dto.TaskResponse;
+import com.example.mini_task_tracker.entity.Task;
+import com.example.mini_task_tracker.entity.TaskStatus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// Per-row and per-request mapping work in TaskServiceImpl; lives in its package to reach the package-private methods
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TaskMappingBenchmark {
+
+    private TaskServiceImpl taskService;
+    private Task task;
+    private Pageable pageable;
+
+    @Setup
+    public void setUp() {
+        // The mapping methods use none of the service's collaborators
+        taskService = new TaskServiceImpl(null, null, null, null, null, null, null);
+        Instant now = Instant.now();
+        task = Task.builder()
+                .id(UUID.randomUUID())
+                .title("Prepare quarterly report")
+                .description("Collect the numbers from every team and summarize them")
+                .status(TaskStatus.IN_PROGRESS)
+                .priority("HIGH")
+                .dueDate(now.plusSeconds(86_400))
+                .createdAt(now)
+                .updatedAt(now)
+                .userId(UUID.randomUUID())
+                .version(3L)
+                .build();
+        pageable = PageRequest.of(2, 25, Sort.by(Sort.Direction.DESC, "dueDate").and(Sort.by("createdAt")));
+    }
+
+    @Benchmark
+    public TaskResponse mapToTaskResponse() {
+        return taskService.mapToTaskResponse(task);
+    }
+
+    @Benchmark
+    public Pageable mapToDbColumnNames() {
+        return taskService.mapToDbColumnNames(pageable);
+    }
+}
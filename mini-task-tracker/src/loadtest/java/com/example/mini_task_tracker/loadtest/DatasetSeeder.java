@@ -0,0 +1,191 @@
+package com.example.mini_task_tracker.loadtest;
+
+import org.flywaydb.core.Flyway;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Fills a database with load test users and their tasks. The schema comes from the application's own Flyway
+ * migrations; earlier load test users (and through the foreign keys their tasks and tokens) are removed first,
+ * so seeding again replaces the dataset instead of growing it.
+ */
+class DatasetSeeder {
+
+    private static final int BATCH_SIZE = 1_000;
+    private static final Duration HISTORY = Duration.ofDays(730);
+
+    private final String jdbcUrl;
+    private final String username;
+    private final String password;
+    private final Random random;
+
+    DatasetSeeder(String jdbcUrl, String username, String password, long randomSeed) {
+        this.jdbcUrl = jdbcUrl;
+        this.username = username;
+        this.password = password;
+        this.random = new Random(randomSeed);
+    }
+
+    void seed(int users, int tasks, double skew) throws SQLException {
+        Flyway.configure()
+                .dataSource(jdbcUrl, username, password)
+                .locations("classpath:db/migration")
+                .baselineOnMigrate(true)
+                .load()
+                .migrate();
+
+        long started = System.nanoTime();
+        try (Connection connection = DriverManager.getConnection(jdbcUrl, username, password)) {
+            connection.setAutoCommit(false);
+            try (Statement statement = connection.createStatement()) {
+                int removed = statement.executeUpdate("DELETE FROM users WHERE email LIKE 'loadtest-user-%'");
+                connection.commit();
+                System.out.printf("Removed %d earlier load test users%n", removed);
+            }
+
+            UUID[] userIds = insertUsers(connection, users);
+            insertTasks(connection, userIds, tasksPerUser(users, tasks, skew));
+            countTasks(connection);
+
+            connection.setAutoCommit(true);
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("ANALYZE users");
+                statement.execute("ANALYZE tasks");
+            }
+        }
+        System.out.printf("Seeded %d users and %d tasks in %d s%n",
+                users, tasks, Duration.ofNanos(System.nanoTime() - started).toSeconds());
+    }
+
+    private UUID[] insertUsers(Connection connection, int users) throws SQLException {
+        // Every user gets the same password, so hash it once rather than spending minutes in BCrypt
+        String hashedPassword = new BCryptPasswordEncoder().encode(SyntheticData.PASSWORD);
+        UUID[] userIds = new UUID[users];
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO users (id, email, username, hashed_password, created_at) VALUES (?, ?, ?, ?, ?)")) {
+            for (int user = 0; user < users; user++) {
+                userIds[user] = uuid("user", user);
+                insert.setObject(1, userIds[user]);
+                insert.setString(2, SyntheticData.email(user));
+                insert.setString(3, SyntheticData.username(user));
+                insert.setString(4, hashedPassword);
+                insert.setObject(5, Instant.now().minus(HISTORY).atOffset(ZoneOffset.UTC));
+                insert.addBatch();
+                if ((user + 1) % BATCH_SIZE == 0) {
+                    insert.executeBatch();
+                }
+            }
+            insert.executeBatch();
+        }
+        connection.commit();
+        return userIds;
+    }
+
+    private void insertTasks(Connection connection, UUID[] userIds, int[] tasksPerUser) throws SQLException {
+        Instant now = Instant.now();
+        long historySeconds = HISTORY.toSeconds();
+        int inserted = 0;
+        try (PreparedStatement insert = connection.prepareStatement("""
+                INSERT INTO tasks (id, title, description, status, priority, due_date, created_at, updated_at, user_id, version, change_seq)
+                VALUES (?, ?, ?, CAST(? AS task_status), ?, ?, ?, ?, ?, 0, ?)
+                """)) {
+            for (int user = 0; user < userIds.length; user++) {
+                for (int i = 0; i < tasksPerUser[user]; i++) {
+                    // Squaring skews creation times towards the present, as task lists grow over time
+                    double ageFraction = Math.pow(random.nextDouble(), 2);
+                    Instant createdAt = now.minusSeconds((long) (ageFraction * historySeconds));
+                    Instant updatedAt = createdAt.plusSeconds(
+                            (long) (random.nextDouble() * Duration.between(createdAt, now).toSeconds()));
+                    Instant dueDate = SyntheticData.dueDate(random, createdAt);
+
+                    insert.setObject(1, uuid("task", inserted));
+                    insert.setString(2, SyntheticData.title(random));
+                    insert.setString(3, SyntheticData.description(random));
+                    insert.setString(4, SyntheticData.status(random, ageFraction).name());
+                    insert.setString(5, SyntheticData.priority(random));
+                    if (dueDate == null) {
+                        insert.setNull(6, Types.TIMESTAMP);
+                    } else {
+                        insert.setObject(6, dueDate.atOffset(ZoneOffset.UTC));
+                    }
+                    insert.setObject(7, createdAt.atOffset(ZoneOffset.UTC));
+                    insert.setObject(8, updatedAt.atOffset(ZoneOffset.UTC));
+                    insert.setObject(9, userIds[user]);
+                    insert.setLong(10, i + 1);
+                    insert.addBatch();
+
+                    if (++inserted % BATCH_SIZE == 0) {
+                        insert.executeBatch();
+                        connection.commit();
+                        if (inserted % (BATCH_SIZE * 50) == 0) {
+                            System.out.printf("Inserted %d tasks%n", inserted);
+                        }
+                    }
+                }
+            }
+            insert.executeBatch();
+        }
+        connection.commit();
+    }
+
+    // The application keeps task_counters and task_change_sequences up to date as it writes; tasks inserted here
+    // bypass it
+    private void countTasks(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.executeUpdate("""
+                    INSERT INTO task_change_sequences (user_id, last_seq)
+                    SELECT t.user_id, MAX(t.change_seq)
+                    FROM tasks t JOIN users u ON u.id = t.user_id
+                    WHERE u.email LIKE 'loadtest-user-%'
+                    GROUP BY t.user_id
+                    """);
+            statement.executeUpdate("""
+                    INSERT INTO task_counters (user_id, status, priority, task_count)
+                    SELECT t.user_id, t.status, COALESCE(t.priority, ''), COUNT(*)
+                    FROM tasks t JOIN users u ON u.id = t.user_id
+                    WHERE u.email LIKE 'loadtest-user-%'
+                    GROUP BY t.user_id, t.status, COALESCE(t.priority, '')
+                    """);
+        }
+        connection.commit();
+    }
+
+    // Zipf-distributed task counts: the first users own most tasks, most users own only a handful
+    private static int[] tasksPerUser(int users, int tasks, double skew) {
+        double[] weights = new double[users];
+        double total = 0;
+        for (int user = 0; user < users; user++) {
+            weights[user] = 1 / Math.pow(user + 1, skew);
+            total += weights[user];
+        }
+        int[] counts = new int[users];
+        int assigned = 0;
+        for (int user = 0; user < users; user++) {
+            counts[user] = (int) (tasks * weights[user] / total);
+            assigned += counts[user];
+        }
+        // Hand out what rounding left over, one task each from the last users up
+        for (int user = users - 1; assigned < tasks; user = user == 0 ? users - 1 : user - 1) {
+            counts[user]++;
+            assigned++;
+        }
+        return counts;
+    }
+
+    // Stable ids across runs, so results of one run can be looked up after reseeding
+    private static UUID uuid(String kind, int index) {
+        return UUID.nameUUIDFromBytes(("loadtest-" + kind + "-" + index).getBytes(StandardCharsets.UTF_8));
+    }
+}
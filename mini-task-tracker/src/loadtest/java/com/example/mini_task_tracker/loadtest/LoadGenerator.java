@@ -0,0 +1,359 @@
+package com.example.mini_task_tracker.loadtest;
+
+import com.example.mini_task_tracker.dto.CreateTaskRequest;
+import com.example.mini_task_tracker.dto.LoginRequest;
+import com.example.mini_task_tracker.dto.UpdateTaskRequest;
+import com.example.mini_task_tracker.entity.TaskStatus;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Drives a weighted request mix against the API with an open workload model: requests start on an arrival
+ * schedule whether or not earlier ones have finished, as independent clients would send them. Latency is measured
+ * from the scheduled start, so a stalled server shows up in the percentiles instead of silently lowering the
+ * request rate (coordinated omission).
+ */
+class LoadGenerator {
+
+    static final String DEFAULT_MIX = "login=2,list=40,list-filtered=20,search=15,create=10,update=9,delete=4";
+
+    enum Operation {
+        LOGIN("login"),
+        LIST("list"),
+        LIST_FILTERED("list-filtered"),
+        SEARCH("search"),
+        CREATE("create"),
+        UPDATE("update"),
+        DELETE("delete");
+
+        private final String key;
+
+        Operation(String key) {
+            this.key = key;
+        }
+
+        static Operation fromKey(String key) {
+            for (Operation operation : values()) {
+                if (operation.key.equals(key)) {
+                    return operation;
+                }
+            }
+            throw new IllegalArgumentException("Unknown operation " + key);
+        }
+    }
+
+    private record VirtualUser(String email, String token, ConcurrentLinkedDeque<UUID> taskIds) {
+    }
+
+    private static class EndpointStats {
+        private final Histogram latencies = new ConcurrentHistogram(3);
+        private final Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+        private final LongAdder failures = new LongAdder();
+        private final LongAdder dropped = new LongAdder();
+    }
+
+    private final URI baseUri;
+    private final int maxInFlight;
+    private final Map<Operation, Integer> mix;
+    private final int totalWeight;
+    private final ExecutorService executor = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "loadtest-http");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final HttpClient client;
+    private final JsonMapper jsonMapper = new JsonMapper();
+    private final Map<Operation, EndpointStats> stats = new EnumMap<>(Operation.class);
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final List<VirtualUser> virtualUsers = new ArrayList<>();
+
+    LoadGenerator(String baseUrl, int maxInFlight, Map<Operation, Integer> mix) {
+        this.baseUri = URI.create(baseUrl);
+        this.maxInFlight = maxInFlight;
+        this.mix = mix;
+        this.totalWeight = mix.values().stream().mapToInt(Integer::intValue).sum();
+        this.client = HttpClient.newBuilder()
+                .executor(executor)
+                // The application speaks plain HTTP/1.1; skip the h2c upgrade attempt on every new connection
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        for (Operation operation : Operation.values()) {
+            stats.put(operation, new EndpointStats());
+        }
+    }
+
+    static Map<Operation, Integer> parseMix(String mix) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split("=");
+            weights.put(Operation.fromKey(parts[0]), Integer.parseInt(parts[1]));
+        }
+        return weights;
+    }
+
+    void run(int seededUsers, int virtualUserCount, double rate, Duration warmup, Duration duration,
+             boolean poissonArrivals, Path resultsDirectory) throws IOException, InterruptedException {
+        logIn(seededUsers, virtualUserCount);
+
+        Random random = new Random();
+        double meanGapNanos = 1e9 / rate;
+        long started = System.nanoTime();
+        long measureFrom = started + warmup.toNanos();
+        long end = measureFrom + duration.toNanos();
+        System.out.printf("Sending %.0f requests/s for %d s after %d s of warmup%n",
+                rate, duration.toSeconds(), warmup.toSeconds());
+
+        long scheduled = started;
+        while (scheduled < end) {
+            long wait = scheduled - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            Operation operation = pick(random);
+            boolean measured = scheduled >= measureFrom;
+            // Past the in-flight limit the client itself is the bottleneck; count the request instead of sending it
+            if (inFlight.get() >= maxInFlight) {
+                if (measured) {
+                    stats.get(operation).dropped.increment();
+                }
+            } else {
+                send(operation, virtualUsers.get(random.nextInt(virtualUsers.size())), scheduled, measured);
+            }
+            scheduled += poissonArrivals
+                    ? (long) (-Math.log(1 - random.nextDouble()) * meanGapNanos)
+                    : (long) meanGapNanos;
+        }
+
+        long drainUntil = System.nanoTime() + Duration.ofSeconds(30).toNanos();
+        while (inFlight.get() > 0 && System.nanoTime() < drainUntil) {
+            Thread.sleep(50);
+        }
+        report(duration, resultsDirectory);
+        executor.shutdownNow();
+    }
+
+    // Log in up front, a few at a time so password hashing does not reject the logins
+    private void logIn(int seededUsers, int virtualUserCount) throws InterruptedException {
+        List<Integer> candidates = new ArrayList<>();
+        for (int user = 0; user < seededUsers; user++) {
+            candidates.add(user);
+        }
+        Collections.shuffle(candidates);
+
+        List<Integer> chosen = candidates.subList(0, Math.min(virtualUserCount, seededUsers));
+        ExecutorService loginPool = Executors.newFixedThreadPool(4);
+        List<VirtualUser> loggedIn = Collections.synchronizedList(new ArrayList<>());
+        for (int user : chosen) {
+            loginPool.execute(() -> {
+                String email = SyntheticData.email(user);
+                try {
+                    HttpResponse<String> response = client.send(loginRequest(email), HttpResponse.BodyHandlers.ofString());
+                    if (response.statusCode() != 200) {
+                        System.err.printf("Login of %s failed with %d%n", email, response.statusCode());
+                        return;
+                    }
+                    String token = jsonMapper.readTree(response.body()).get("token").asString();
+                    VirtualUser virtualUser = new VirtualUser(email, token, new ConcurrentLinkedDeque<>());
+                    // Some existing tasks to update and delete
+                    HttpResponse<String> tasks = client.send(authorized(virtualUser, "/api/tasks?size=50").GET().build(),
+                            HttpResponse.BodyHandlers.ofString());
+                    for (JsonNode task : jsonMapper.readTree(tasks.body()).get("content")) {
+                        virtualUser.taskIds().add(UUID.fromString(task.get("id").asString()));
+                    }
+                    loggedIn.add(virtualUser);
+                } catch (IOException e) {
+                    System.err.printf("Login of %s failed: %s%n", email, e.getMessage());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+        loginPool.shutdown();
+        loginPool.awaitTermination(10, TimeUnit.MINUTES);
+        if (loggedIn.isEmpty()) {
+            throw new IllegalStateException("No virtual user could log in; is the application running and seeded?");
+        }
+        virtualUsers.addAll(loggedIn);
+        System.out.printf("Logged in %d virtual users%n", virtualUsers.size());
+    }
+
+    private Operation pick(Random random) {
+        int roll = random.nextInt(totalWeight);
+        for (Map.Entry<Operation, Integer> entry : mix.entrySet()) {
+            roll -= entry.getValue();
+            if (roll < 0) {
+                return entry.getKey();
+            }
+        }
+        throw new IllegalStateException("Empty request mix");
+    }
+
+    private void send(Operation operation, VirtualUser user, long scheduled, boolean measured) {
+        UUID taskId = switch (operation) {
+            case UPDATE -> user.taskIds().peekLast();
+            case DELETE -> user.taskIds().pollLast();
+            default -> null;
+        };
+        if ((operation == Operation.UPDATE || operation == Operation.DELETE) && taskId == null) {
+            // Nothing left to change for this user; create a task instead so the write rate stays the same
+            operation = Operation.CREATE;
+        }
+
+        Operation sent = operation;
+        inFlight.incrementAndGet();
+        CompletableFuture<HttpResponse<String>> response;
+        try {
+            response = client.sendAsync(request(sent, user, taskId), HttpResponse.BodyHandlers.ofString());
+        } catch (RuntimeException e) {
+            response = CompletableFuture.failedFuture(e);
+        }
+        response.whenComplete((result, failure) -> {
+            inFlight.decrementAndGet();
+            if (!measured) {
+                return;
+            }
+            EndpointStats endpoint = stats.get(sent);
+            endpoint.latencies.recordValue(Math.max(1, System.nanoTime() - scheduled));
+            if (failure != null) {
+                endpoint.failures.increment();
+                return;
+            }
+            endpoint.statuses.computeIfAbsent(result.statusCode(), status -> new LongAdder()).increment();
+            if (sent == Operation.CREATE && result.statusCode() == 201) {
+                user.taskIds().add(UUID.fromString(jsonMapper.readTree(result.body()).get("id").asString()));
+            }
+        });
+    }
+
+    private HttpRequest request(Operation operation, VirtualUser user, UUID taskId) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return switch (operation) {
+            case LOGIN -> loginRequest(user.email());
+            case LIST -> authorized(user, "/api/tasks?size=25&sortBy="
+                    + (random.nextBoolean() ? "createdAt" : "dueDate")).GET().build();
+            case LIST_FILTERED -> {
+                StringBuilder path = new StringBuilder("/api/tasks?size=25");
+                if (random.nextBoolean()) {
+                    path.append("&status=").append(TaskStatus.values()[random.nextInt(TaskStatus.values().length)]);
+                }
+                if (random.nextBoolean()) {
+                    path.append("&priority=").append(SyntheticData.PRIORITIES[random.nextInt(SyntheticData.PRIORITIES.length)]);
+                }
+                if (random.nextInt(3) == 0) {
+                    path.append("&sortBy=dueDate&sortDirection=ASC&dueDateFrom=")
+                            .append(URLEncoder.encode(Instant.now().toString(), StandardCharsets.UTF_8));
+                }
+                yield authorized(user, path.toString()).GET().build();
+            }
+            case SEARCH -> authorized(user, "/api/tasks?size=25&search="
+                    + SyntheticData.SEARCH_TERMS[random.nextInt(SyntheticData.SEARCH_TERMS.length)]).GET().build();
+            case CREATE -> json(authorized(user, "/api/tasks"), "POST", CreateTaskRequest.builder()
+                    .title(SyntheticData.title(new Random(random.nextLong())))
+                    .description(SyntheticData.description(new Random(random.nextLong())))
+                    .priority(SyntheticData.priority(new Random(random.nextLong())))
+                    .dueDate(Instant.now().plus(Duration.ofDays(1 + random.nextInt(30))))
+                    .build());
+            case UPDATE -> json(authorized(user, "/api/tasks/" + taskId), "PATCH", UpdateTaskRequest.builder()
+                    .status(TaskStatus.values()[random.nextInt(TaskStatus.values().length)])
+                    .build());
+            case DELETE -> authorized(user, "/api/tasks/" + taskId).DELETE().build();
+        };
+    }
+
+    private HttpRequest loginRequest(String email) {
+        return json(HttpRequest.newBuilder(baseUri.resolve("/api/users/login")), "POST",
+                new LoginRequest(email, SyntheticData.PASSWORD));
+    }
+
+    private HttpRequest.Builder authorized(VirtualUser user, String path) {
+        return HttpRequest.newBuilder(baseUri.resolve(path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Authorization", "Bearer " + user.token());
+    }
+
+    private HttpRequest json(HttpRequest.Builder builder, String method, Object body) {
+        return builder.header("Content-Type", "application/json")
+                .method(method, HttpRequest.BodyPublishers.ofByteArray(jsonMapper.writeValueAsBytes(body)))
+                .build();
+    }
+
+    // Summary on stdout and in summary.txt, full latency distributions per endpoint in <operation>.hgrm
+    private void report(Duration duration, Path resultsDirectory) throws IOException {
+        Files.createDirectories(resultsDirectory);
+        try (PrintStream summary = new PrintStream(Files.newOutputStream(resultsDirectory.resolve("summary.txt")),
+                true, StandardCharsets.UTF_8)) {
+            String header = String.format("%-14s %9s %9s %8s %8s %9s %9s %9s %9s %9s  %s",
+                    "endpoint", "requests", "req/s", "failed", "dropped",
+                    "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms", "statuses");
+            System.out.println(header);
+            summary.println(header);
+
+            long total = 0;
+            for (Operation operation : Operation.values()) {
+                EndpointStats endpoint = stats.get(operation);
+                Histogram latencies = endpoint.latencies;
+                long requests = latencies.getTotalCount();
+                if (requests == 0 && endpoint.dropped.sum() == 0) {
+                    continue;
+                }
+                total += requests;
+                String line = String.format("%-14s %9d %9.1f %8d %8d %9.2f %9.2f %9.2f %9.2f %9.2f  %s",
+                        operation.key, requests, requests / (double) duration.toSeconds(),
+                        endpoint.failures.sum(), endpoint.dropped.sum(),
+                        millis(latencies.getValueAtPercentile(50)), millis(latencies.getValueAtPercentile(90)),
+                        millis(latencies.getValueAtPercentile(99)), millis(latencies.getValueAtPercentile(99.9)),
+                        millis(latencies.getMaxValue()), new TreeMap<>(endpoint.statuses));
+                System.out.println(line);
+                summary.println(line);
+
+                try (PrintStream distribution = new PrintStream(
+                        Files.newOutputStream(resultsDirectory.resolve(operation.key + ".hgrm")), true,
+                        StandardCharsets.UTF_8)) {
+                    latencies.outputPercentileDistribution(distribution, 1_000_000.0);
+                }
+            }
+            String throughput = String.format("Completed %d requests, %.1f/s", total, total / (double) duration.toSeconds());
+            System.out.println(throughput);
+            summary.println(throughput);
+        }
+        System.out.printf("Latency distributions (ms) written to %s%n", resultsDirectory.toAbsolutePath());
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
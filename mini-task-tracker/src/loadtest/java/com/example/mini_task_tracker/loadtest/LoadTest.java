@@ -0,0 +1,72 @@
+package com.example.mini_task_tracker.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Seeds a local database with a synthetic dataset ({@code seed}), drives an open-model request mix against a
+ * running application ({@code run}), or both in that order.
+ * <pre>
+ * ./mvnw test-compile exec:exec -Ploadtest -Dloadtest.args="seed --users=2000 --tasks=500000"
+ * ./mvnw test-compile exec:exec -Ploadtest -Dloadtest.args="run --rate=300 --duration=120"
+ * </pre>
+ * Seed options: {@code --jdbc-url}, {@code --db-user}, {@code --db-password}, {@code --users} (1000),
+ * {@code --tasks} (200000), {@code --skew} (1.1, Zipf exponent of tasks per user), {@code --random-seed}.
+ * <p>
+ * Run options: {@code --base-url} (http://localhost:8080), {@code --users} (the seeded users to pick virtual
+ * users from), {@code --virtual-users} (200), {@code --rate} (requests per second, 200), {@code --warmup} and
+ * {@code --duration} (seconds, 10 and 60), {@code --arrivals} (poisson or uniform), {@code --max-in-flight}
+ * (2000), {@code --mix} ({@value LoadGenerator#DEFAULT_MIX}) and {@code --results} (target/loadtest).
+ */
+public class LoadTest {
+
+    public static void main(String[] args) throws Exception {
+        List<String> commands = new ArrayList<>();
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (arg.startsWith("--")) {
+                int eq = arg.indexOf('=');
+                if (eq < 0) {
+                    throw new IllegalArgumentException("Expected --name=value but got " + arg);
+                }
+                options.put(arg.substring(2, eq), arg.substring(eq + 1));
+            } else {
+                commands.add(arg);
+            }
+        }
+        if (commands.isEmpty()) {
+            commands = List.of("seed", "run");
+        }
+
+        int users = Integer.parseInt(options.getOrDefault("users", "1000"));
+        for (String command : commands) {
+            switch (command) {
+                case "seed" -> new DatasetSeeder(
+                        options.getOrDefault("jdbc-url",
+                                "jdbc:postgresql://localhost:5432/taskdb?reWriteBatchedInserts=true"),
+                        options.getOrDefault("db-user", "postgres"),
+                        options.getOrDefault("db-password", "password"),
+                        Long.parseLong(options.getOrDefault("random-seed", "42")))
+                        .seed(users,
+                                Integer.parseInt(options.getOrDefault("tasks", "200000")),
+                                Double.parseDouble(options.getOrDefault("skew", "1.1")));
+                case "run" -> new LoadGenerator(
+                        options.getOrDefault("base-url", "http://localhost:8080"),
+                        Integer.parseInt(options.getOrDefault("max-in-flight", "2000")),
+                        LoadGenerator.parseMix(options.getOrDefault("mix", LoadGenerator.DEFAULT_MIX)))
+                        .run(users,
+                                Integer.parseInt(options.getOrDefault("virtual-users", "200")),
+                                Double.parseDouble(options.getOrDefault("rate", "200")),
+                                Duration.ofSeconds(Long.parseLong(options.getOrDefault("warmup", "10"))),
+                                Duration.ofSeconds(Long.parseLong(options.getOrDefault("duration", "60"))),
+                                "poisson".equalsIgnoreCase(options.getOrDefault("arrivals", "poisson")),
+                                Path.of(options.getOrDefault("results", "target/loadtest")));
+                default -> throw new IllegalArgumentException("Unknown command " + command + ", expected seed or run");
+            }
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.mini_task_tracker.loadtest;
+
+import com.example.mini_task_tracker.entity.TaskStatus;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Random;
+
+// Value distributions shared by the seeder and the request mix, so searches and filters hit realistic row counts
+final class SyntheticData {
+
+    static final String PASSWORD = "Password@123";
+
+    private static final String[] VERBS = {
+            "Review", "Prepare", "Update", "Fix", "Write", "Plan", "Migrate", "Test", "Deploy", "Document",
+            "Refactor", "Investigate", "Schedule", "Draft", "Clean up", "Automate"
+    };
+    private static final String[] SUBJECTS = {
+            "quarterly report", "payroll export", "login flow", "release notes", "database backup", "onboarding guide",
+            "budget forecast", "customer survey", "invoice batch", "search index", "team offsite", "API contract",
+            "security audit", "dashboard", "vendor contract", "test suite", "monitoring alerts", "roadmap"
+    };
+    private static final String[] WORDS = {
+            "the", "and", "with", "for", "team", "customer", "deadline", "follow", "up", "numbers", "check", "before",
+            "meeting", "draft", "final", "review", "notes", "issue", "blocked", "waiting", "approval", "data", "next",
+            "week", "sprint", "priority", "details", "attached", "summary", "update"
+    };
+
+    /** Words worth searching for: every one of them appears in some titles. */
+    static final String[] SEARCH_TERMS = {
+            "report", "payroll", "login", "release", "backup", "onboarding", "budget", "survey", "invoice", "index",
+            "audit", "dashboard", "contract", "alerts", "roadmap", "migrate", "deploy", "refactor"
+    };
+
+    static final String[] PRIORITIES = {"high", "medium", "low"};
+
+    private SyntheticData() {
+    }
+
+    static String email(int user) {
+        return "loadtest-user-" + user + "@example.com";
+    }
+
+    static String username(int user) {
+        return "loadtest_user_" + user;
+    }
+
+    static String title(Random random) {
+        return VERBS[random.nextInt(VERBS.length)] + " " + SUBJECTS[skewedIndex(random, SUBJECTS.length)];
+    }
+
+    // Most tasks have a short description or none; a few carry pasted notes of several kilobytes
+    static String description(Random random) {
+        if (random.nextDouble() < 0.2) {
+            return null;
+        }
+        int length = (int) Math.min(8_000, Math.exp(4.4 + random.nextGaussian() * 1.1));
+        StringBuilder description = new StringBuilder(length + 16);
+        while (description.length() < length) {
+            if (!description.isEmpty()) {
+                description.append(' ');
+            }
+            description.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return description.toString();
+    }
+
+    // Recent tasks are more likely to be open; most old ones are done
+    static TaskStatus status(Random random, double ageFraction) {
+        double done = 0.1 + 0.75 * ageFraction;
+        double roll = random.nextDouble();
+        if (roll < done) {
+            return TaskStatus.DONE;
+        }
+        return roll < done + (1 - done) * 0.35 ? TaskStatus.IN_PROGRESS : TaskStatus.TODO;
+    }
+
+    static String priority(Random random) {
+        double roll = random.nextDouble();
+        if (roll < 0.1) {
+            return null;
+        }
+        if (roll < 0.3) {
+            return PRIORITIES[0];
+        }
+        return roll < 0.75 ? PRIORITIES[1] : PRIORITIES[2];
+    }
+
+    // A quarter of tasks have no due date; the rest are due a few days to a few weeks after creation
+    static Instant dueDate(Random random, Instant createdAt) {
+        if (random.nextDouble() < 0.25) {
+            return null;
+        }
+        double days = -Math.log(1 - random.nextDouble()) * 14;
+        return createdAt.plus(Duration.ofMinutes((long) (days * 24 * 60)));
+    }
+
+    // Lower indexes are picked more often, so a few values dominate as they do in real data
+    static int skewedIndex(Random random, int size) {
+        double u = random.nextDouble();
+        return (int) (size * u * u);
+    }
+}
@@ -2,8 +2,10 @@ package com.example.mini_task_tracker;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class MiniTaskTrackerApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,14 @@
+package com.example.mini_task_tracker.cache;
+
+import com.example.mini_task_tracker.entity.User;
+
+import java.time.Instant;
+import java.util.UUID;
+
+// Immutable copy of a users row, safe to share between requests
+public record CachedUser(UUID id, String username, String email, String hashedPassword, Instant createdAt) {
+
+    public static CachedUser of(User user) {
+        return new CachedUser(user.getId(), user.getUsername(), user.getEmail(), user.getHashedPassword(), user.getCreatedAt());
+    }
+}
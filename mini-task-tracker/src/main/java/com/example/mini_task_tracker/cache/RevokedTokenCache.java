@@ -0,0 +1,99 @@
+package com.example.mini_task_tracker.cache;
+
+import com.example.mini_task_tracker.entity.RevokedToken;
+import com.example.mini_task_tracker.repository.RevokedTokenRepository;
+import com.example.mini_task_tracker.util.BloomFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Revoked access tokens by jti. Every authenticated request asks {@link #isRevoked}, which almost always answers
+ * from an in-memory Bloom filter alone; only filter hits are confirmed against the exact set. Revocations are
+ * stored in Postgres, loaded at startup and reloaded periodically, which also picks up revocations made by other
+ * instances and drops the ones whose tokens have expired.
+ */
+@Component
+public class RevokedTokenCache {
+
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final int expectedRevocations;
+
+    // jti -> expiry of the revoked token
+    private final Map<String, Instant> revoked = new ConcurrentHashMap<>();
+    private volatile BloomFilter filter;
+    // Serializes writers (revoke and reload); readers never lock. Not a monitor, so that a virtual thread waiting
+    // for it unmounts instead of pinning its carrier
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final Counter falsePositives;
+
+    public RevokedTokenCache(
+            RevokedTokenRepository revokedTokenRepository,
+            @Value("${token-revocation.expected-revocations:100000}") int expectedRevocations,
+            MeterRegistry meterRegistry) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.expectedRevocations = expectedRevocations;
+        this.filter = new BloomFilter(expectedRevocations, FALSE_POSITIVE_RATE);
+        meterRegistry.gaugeMapSize("token.revocations", List.of(), revoked);
+        this.falsePositives = meterRegistry.counter("token.revocations.false_positives");
+    }
+
+    public boolean isRevoked(String jti) {
+        // Tokens issued before jti was introduced can't be revoked
+        if (jti == null || !filter.mightContain(jti)) {
+            return false;
+        }
+        if (revoked.containsKey(jti)) {
+            return true;
+        }
+        falsePositives.increment();
+        return false;
+    }
+
+    public void revoke(String jti, Instant expiresAt) {
+        revokedTokenRepository.insertIfAbsent(jti, expiresAt);
+        lock.lock();
+        try {
+            revoked.put(jti, expiresAt);
+            filter.put(jti);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Reloads the revocations from the database and rebuilds the filter without the expired ones, since a Bloom
+     * filter can't forget values. Revocations made here while the query ran are kept.
+     */
+    @PostConstruct
+    @Scheduled(
+            initialDelayString = "${token-revocation.reload-interval:30s}",
+            fixedDelayString = "${token-revocation.reload-interval:30s}")
+    public void reload() {
+        Instant now = Instant.now();
+        revokedTokenRepository.deleteExpired(now);
+        List<RevokedToken> stored = revokedTokenRepository.findByExpiresAtAfter(now);
+        lock.lock();
+        try {
+            revoked.values().removeIf(expiresAt -> !expiresAt.isAfter(now));
+            stored.forEach(token -> revoked.put(token.getJti(), token.getExpiresAt()));
+            BloomFilter rebuilt = new BloomFilter(Math.max(expectedRevocations, revoked.size() * 2), FALSE_POSITIVE_RATE);
+            revoked.keySet().forEach(rebuilt::put);
+            filter = rebuilt;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
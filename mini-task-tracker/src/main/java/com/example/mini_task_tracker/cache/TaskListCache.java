@@ -0,0 +1,66 @@
+package com.example.mini_task_tracker.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Bounded in-process cache of task list pages, keyed by user, the user's list fingerprint and the normalized list
+ * query. The fingerprint is the one the list's ETag was computed from and was read before the page, so a page is
+ * never older than the fingerprint it is stored under: a stale page can't be served under a fresh ETag. A user's
+ * pages are evicted once a transaction that changed their tasks commits, which only frees the room of pages that
+ * can no longer be hit.
+ */
+@Component
+public class TaskListCache {
+
+    private final Cache<Key, Page<?>> pages;
+
+    private final Counter userEvictions;
+
+    public TaskListCache(
+            @Value("${task-list-cache.maximum-size:10000}") long maximumSize,
+            @Value("${task-list-cache.ttl:60s}") Duration ttl,
+            MeterRegistry meterRegistry) {
+        this.pages = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        // Publishes hits, misses, evictions and size as cache.* meters tagged cache=taskLists
+        CaffeineCacheMetrics.monitor(meterRegistry, pages, "taskLists");
+        // Caffeine only counts size and expiry evictions, so invalidations after writes are counted separately
+        this.userEvictions = meterRegistry.counter("cache.user.evictions", "cache", "taskLists");
+    }
+
+    // The query decides the page's content type, so equal queries always share pages of the same type
+    @SuppressWarnings("unchecked")
+    public <T> Page<T> get(UUID userId, String fingerprint, Object query, Supplier<Page<T>> loader) {
+        return (Page<T>) pages.get(new Key(userId, fingerprint, query), key -> loader.get());
+    }
+
+    // Runs without a transaction too, e.g. when a change is published outside of one
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onTaskListChanged(TaskListChangedEvent event) {
+        evictUser(event.userId());
+    }
+
+    public void evictUser(UUID userId) {
+        pages.asMap().keySet().removeIf(key -> key.userId().equals(userId));
+        userEvictions.increment();
+    }
+
+    private record Key(UUID userId, String fingerprint, Object query) {
+    }
+}
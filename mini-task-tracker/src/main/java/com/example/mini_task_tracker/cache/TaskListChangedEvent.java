@@ -0,0 +1,7 @@
+package com.example.mini_task_tracker.cache;
+
+import java.util.UUID;
+
+// Published whenever a user's tasks are created, updated or deleted
+public record TaskListChangedEvent(UUID userId) {
+}
@@ -0,0 +1,74 @@
+package com.example.mini_task_tracker.cache;
+
+import com.example.mini_task_tracker.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Bounded in-process cache of users by id and by email, so that login, refresh and /me don't read the users row
+ * on every call. Whatever changes a user must {@link #evict} them; unknown ids and emails are not cached.
+ */
+@Component
+public class UserCache {
+
+    private final UserRepository userRepository;
+    private final Cache<UUID, CachedUser> byId;
+    private final Cache<String, CachedUser> byEmail;
+
+    public UserCache(
+            UserRepository userRepository,
+            @Value("${user-cache.maximum-size:10000}") long maximumSize,
+            @Value("${user-cache.ttl:10m}") Duration ttl,
+            MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.byId = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.byEmail = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, byId, "usersById");
+        CaffeineCacheMetrics.monitor(meterRegistry, byEmail, "usersByEmail");
+    }
+
+    public Optional<CachedUser> findById(UUID id) {
+        return Optional.ofNullable(byId.get(id, key -> userRepository.findById(key)
+                .map(CachedUser::of)
+                .map(this::putByEmail)
+                .orElse(null)));
+    }
+
+    public Optional<CachedUser> findByEmail(String email) {
+        return Optional.ofNullable(byEmail.get(email, key -> userRepository.findByEmail(key)
+                .map(CachedUser::of)
+                .map(this::putById)
+                .orElse(null)));
+    }
+
+    public void evict(CachedUser user) {
+        byId.invalidate(user.id());
+        byEmail.invalidate(user.email());
+    }
+
+    private CachedUser putById(CachedUser user) {
+        byId.put(user.id(), user);
+        return user;
+    }
+
+    private CachedUser putByEmail(CachedUser user) {
+        byEmail.put(user.email(), user);
+        return user;
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.mini_task_tracker.config;
+
+import com.example.mini_task_tracker.converter.TaskStatusConverter;
+import com.example.mini_task_tracker.dto.BatchTaskOperation;
+import com.example.mini_task_tracker.dto.BatchTaskRequest;
+import com.example.mini_task_tracker.dto.BatchTaskResponse;
+import com.example.mini_task_tracker.dto.BatchTaskResult;
+import com.example.mini_task_tracker.dto.CreateTaskRequest;
+import com.example.mini_task_tracker.dto.CursorPageResponse;
+import com.example.mini_task_tracker.dto.LoginRequest;
+import com.example.mini_task_tracker.dto.LoginResponse;
+import com.example.mini_task_tracker.dto.PageResponse;
+import com.example.mini_task_tracker.dto.RefreshTokenRequest;
+import com.example.mini_task_tracker.dto.RefreshTokenResponse;
+import com.example.mini_task_tracker.dto.RegisterRequest;
+import com.example.mini_task_tracker.dto.SliceResponse;
+import com.example.mini_task_tracker.dto.TaskChangesResponse;
+import com.example.mini_task_tracker.dto.TaskResponse;
+import com.example.mini_task_tracker.dto.TaskStatsResponse;
+import com.example.mini_task_tracker.dto.UpdateTaskRequest;
+import com.example.mini_task_tracker.dto.UserResponse;
+import com.example.mini_task_tracker.entity.RefreshToken;
+import com.example.mini_task_tracker.entity.RevokedToken;
+import com.example.mini_task_tracker.entity.Task;
+import com.example.mini_task_tracker.entity.User;
+import com.example.mini_task_tracker.util.TaskResponseSerializer;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.jdbc.datasource.ConnectionProxy;
+
+import java.sql.CallableStatement;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * Reflection, proxy and resource hints for the native image ({@code -Pnative}). Spring works out most of them from
+ * the bean definitions; these are the types only reached through Jackson, Hibernate, JJWT or Flyway at runtime.
+ * Ignored on the JVM.
+ */
+@Configuration
+@ImportRuntimeHints(NativeHintsConfig.Hints.class)
+// Request and response bodies; Jackson needs their Lombok-generated constructors, getters and setters
+@RegisterReflectionForBinding(
+        classes = {
+                BatchTaskOperation.class, BatchTaskRequest.class, BatchTaskResponse.class, BatchTaskResult.class,
+                CreateTaskRequest.class, CursorPageResponse.class, LoginRequest.class, LoginResponse.class,
+                PageResponse.class, PageResponse.PageMetadata.class, RefreshTokenRequest.class,
+                RefreshTokenResponse.class, RegisterRequest.class, SliceResponse.class, TaskChangesResponse.class, TaskResponse.class,
+                TaskStatsResponse.class, UpdateTaskRequest.class, UserResponse.class
+        },
+        classNames = "com.example.mini_task_tracker.exception.GlobalExceptionHandler$ErrorResponse")
+public class NativeHintsConfig {
+
+    // JJWT finds its implementation by class name and its Jackson serializer through ServiceLoader
+    private static final List<String> JJWT_TYPES = List.of(
+            "io.jsonwebtoken.impl.DefaultClaimsBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtHeaderBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtParserBuilder",
+            "io.jsonwebtoken.impl.io.StandardCompressionAlgorithms",
+            "io.jsonwebtoken.impl.security.KeysBridge",
+            "io.jsonwebtoken.impl.security.StandardEncryptionAlgorithms",
+            "io.jsonwebtoken.impl.security.StandardHashAlgorithms",
+            "io.jsonwebtoken.impl.security.StandardKeyAlgorithms",
+            "io.jsonwebtoken.impl.security.StandardKeyOperations",
+            "io.jsonwebtoken.impl.security.StandardSecureDigestAlgorithms",
+            "io.jsonwebtoken.jackson.io.JacksonSerializer",
+            "io.jsonwebtoken.jackson.io.JacksonDeserializer");
+
+    static class Hints implements RuntimeHintsRegistrar {
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            for (Class<?> entity : List.of(Task.class, User.class, RefreshToken.class, RevokedToken.class)) {
+                hints.reflection().registerType(entity,
+                        MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                        MemberCategory.INVOKE_DECLARED_METHODS,
+                        MemberCategory.ACCESS_DECLARED_FIELDS);
+            }
+            hints.reflection().registerType(TaskStatusConverter.class, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS);
+            // Named in @JsonSerialize on TaskResponse
+            hints.reflection().registerType(TaskResponseSerializer.class, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS);
+
+            for (String type : JJWT_TYPES) {
+                hints.reflection().registerTypeIfPresent(classLoader, type,
+                        MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                        MemberCategory.INVOKE_DECLARED_METHODS);
+            }
+            hints.resources().registerPattern("META-INF/services/io.jsonwebtoken.*");
+
+            // Flyway lists the migrations from the image's resources
+            hints.resources().registerPattern("db/migration/*.sql");
+
+            // The connection and statement wrappers of ConnectionLimitingDataSource and StatementCountingDataSource
+            hints.proxies().registerJdkProxy(ConnectionProxy.class);
+            hints.proxies().registerJdkProxy(Statement.class);
+            hints.proxies().registerJdkProxy(PreparedStatement.class);
+            hints.proxies().registerJdkProxy(CallableStatement.class);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.mini_task_tracker.config;
+
+import com.example.mini_task_tracker.util.ConnectionLimitingDataSource;
+import com.example.mini_task_tracker.util.ReadWriteRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.autoconfigure.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Read replicas ({@code datasource-routing.enabled}): read-only transactions go to the replica pools, everything
+ * else to the primary configured in {@code spring.datasource}. See {@link ReadWriteRoutingDataSource}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "datasource-routing.enabled", havingValue = "true")
+public class ReadReplicaConfig {
+
+    // The pool Spring Boot would otherwise create from spring.datasource
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public ReadWriteRoutingDataSource readWriteRoutingDataSource(
+            @Qualifier("primaryDataSource") DataSource primary,
+            DataSourceProperties properties,
+            @Value("${datasource-routing.replica-urls}") String[] replicaUrls,
+            @Value("${datasource-routing.replica-username:}") String replicaUsername,
+            @Value("${datasource-routing.replica-password:}") String replicaPassword,
+            @Value("${datasource-routing.connection-timeout:2s}") Duration connectionTimeout,
+            @Value("${datasource-routing.health-check-interval:5s}") Duration healthCheckInterval,
+            @Value("${datasource-routing.max-lag:5s}") Duration maxLag,
+            @Value("${datasource-routing.read-your-writes:5s}") Duration readYourWritesWindow,
+            @Value("${connection-limiter.enabled:false}") boolean limitConnections,
+            @Value("${connection-limiter.max-wait:30s}") Duration limiterMaxWait,
+            MeterRegistry meterRegistry) throws SQLException {
+        HikariDataSource primaryPool = primary.unwrap(HikariDataSource.class);
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (int i = 0; i < replicaUrls.length; i++) {
+            HikariDataSource replica = new HikariDataSource();
+            replica.setPoolName("replica-" + (i + 1));
+            replica.setJdbcUrl(replicaUrls[i].trim());
+            replica.setUsername(replicaUsername.isEmpty() ? properties.determineUsername() : replicaUsername);
+            replica.setPassword(replicaPassword.isEmpty() ? properties.determinePassword() : replicaPassword);
+            replica.setReadOnly(true);
+            replica.setMaximumPoolSize(primaryPool.getMaximumPoolSize());
+            // Short, so that requests and the health check notice a replica that went away within seconds
+            replica.setConnectionTimeout(connectionTimeout.toMillis());
+            // Start even while a replica is down; the health check keeps reads away from it
+            replica.setInitializationFailTimeout(-1);
+            replica.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            replicas.put(replica.getPoolName(), limitConnections
+                    ? new ConnectionLimitingDataSource(replica, replica.getMaximumPoolSize(), limiterMaxWait, meterRegistry)
+                    : replica);
+        }
+        return new ReadWriteRoutingDataSource(
+                primary, replicas, healthCheckInterval, maxLag, readYourWritesWindow,
+                ReadReplicaConfig::currentUserId, meterRegistry);
+    }
+
+    // Fetches the connection at the first statement, when the transaction's read-only flag is known
+    @Bean
+    @Primary
+    public DataSource dataSource(ReadWriteRoutingDataSource readWriteRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(readWriteRoutingDataSource);
+    }
+
+    private static String currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof Map<?, ?> principal) {
+            return (String) principal.get("userId");
+        }
+        return null;
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.mini_task_tracker.config;
+
+import com.example.mini_task_tracker.util.StatementCountingDataSource;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Counts SQL statements per request, see {@link com.example.mini_task_tracker.filter.SqlStatementBudgetFilter}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "sql-statements.enabled", havingValue = "true")
+public class SqlStatementConfig {
+
+    // Wraps the DataSource the application uses, outside the connection limiter and read/write routing: the
+    // @Primary one, or the only one there is. Not Ordered, so that it runs after the post-processors that are
+    @Bean
+    public static BeanPostProcessor statementCounting(ConfigurableListableBeanFactory beanFactory) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && isApplicationDataSource(beanFactory, beanName)) {
+                    return new StatementCountingDataSource(dataSource);
+                }
+                return bean;
+            }
+        };
+    }
+
+    private static boolean isApplicationDataSource(ConfigurableListableBeanFactory beanFactory, String beanName) {
+        if (!beanFactory.containsBeanDefinition(beanName)) {
+            return false;
+        }
+        return beanFactory.getBeanDefinition(beanName).isPrimary()
+                || beanFactory.getBeanNamesForType(DataSource.class, true, false).length == 1;
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.mini_task_tracker.config;
+
+import com.example.mini_task_tracker.util.ConnectionLimitingDataSource;
+import com.example.mini_task_tracker.util.VirtualThreadPinningMonitor;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.time.Duration;
+
+/**
+ * Support for running on virtual threads ({@code spring.threads.virtual.enabled}, Java 21+), with which Spring Boot
+ * runs Tomcat requests, {@code @Async} and {@code @Scheduled} work on virtual threads.
+ */
+@Configuration
+public class VirtualThreadConfig {
+
+    // Queues threads in front of the Hikari pool; the limit follows the pool's maximum size unless set
+    @Bean
+    @ConditionalOnProperty(name = "connection-limiter.enabled", havingValue = "true")
+    public static ConnectionLimiterPostProcessor connectionLimiter(
+            @Value("${connection-limiter.max-concurrent:0}") int maxConcurrent,
+            @Value("${connection-limiter.max-wait:30s}") Duration maxWait,
+            ObjectProvider<MeterRegistry> meterRegistry) {
+        return new ConnectionLimiterPostProcessor(maxConcurrent, maxWait, meterRegistry);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+    public VirtualThreadPinningMonitor virtualThreadPinningMonitor(
+            @Value("${virtual-threads.pinning-threshold:20ms}") Duration threshold,
+            MeterRegistry meterRegistry) {
+        return new VirtualThreadPinningMonitor(threshold, meterRegistry);
+    }
+
+    // Ordered (and declared as such, so the container knows before creating it), so that it sees the pool itself
+    // before other post-processors wrap it
+    static class ConnectionLimiterPostProcessor implements BeanPostProcessor, Ordered {
+
+        private final int maxConcurrent;
+        private final Duration maxWait;
+        private final ObjectProvider<MeterRegistry> meterRegistry;
+
+        ConnectionLimiterPostProcessor(int maxConcurrent, Duration maxWait, ObjectProvider<MeterRegistry> meterRegistry) {
+            this.maxConcurrent = maxConcurrent;
+            this.maxWait = maxWait;
+            this.meterRegistry = meterRegistry;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (bean instanceof HikariDataSource hikari) {
+                return new ConnectionLimitingDataSource(
+                        hikari,
+                        maxConcurrent > 0 ? maxConcurrent : hikari.getMaximumPoolSize(),
+                        maxWait,
+                        meterRegistry.getObject());
+            }
+            return bean;
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE;
+        }
+    }
+}
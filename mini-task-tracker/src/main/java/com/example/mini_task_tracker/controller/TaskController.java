@@ -1,25 +1,41 @@
 package com.example.mini_task_tracker.controller;
 
+import com.example.mini_task_tracker.dto.BatchTaskRequest;
+import com.example.mini_task_tracker.dto.BatchTaskResponse;
 import com.example.mini_task_tracker.dto.CreateTaskRequest;
+import com.example.mini_task_tracker.dto.CursorPageResponse;
+import com.example.mini_task_tracker.dto.ExportFormat;
+import com.example.mini_task_tracker.dto.PageResponse;
+import com.example.mini_task_tracker.dto.SearchMode;
+import com.example.mini_task_tracker.dto.TaskChangesResponse;
+import com.example.mini_task_tracker.dto.TaskFilter;
 import com.example.mini_task_tracker.dto.TaskResponse;
+import com.example.mini_task_tracker.dto.TaskStatsResponse;
+import com.example.mini_task_tracker.dto.TotalsMode;
 import com.example.mini_task_tracker.dto.UpdateTaskRequest;
 import com.example.mini_task_tracker.entity.TaskStatus;
 import com.example.mini_task_tracker.service.TaskService;
+import com.example.mini_task_tracker.util.ETagUtil;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.io.IOException;
 import java.time.Instant;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
@@ -41,12 +57,12 @@ public class TaskController {
         Map<String, String> principal = (Map<String, String>) authentication.getPrincipal();
         String userId = principal.get("userId");
         TaskResponse response = taskService.createTask(request, userId);
-        return new ResponseEntity<>(response, HttpStatus.CREATED);
+        return ResponseEntity.status(HttpStatus.CREATED).eTag(ETagUtil.forVersion(response.getVersion())).body(response);
     }
 
     @GetMapping
-    @Operation(summary = "Get user tasks", description = "Get paginated list of tasks for the authenticated user with optional filters")
-    public ResponseEntity<Page<TaskResponse>> getTasks(
+    @Operation(summary = "Get user tasks", description = "Get paginated list of tasks for the authenticated user with optional filters. Search is full-text and ranked by relevance; use searchMode=SUBSTRING for plain substring matching. totals=exact (default) counts all matching tasks, totals=estimate reports the query planner's estimate instead, totals=none skips the total altogether and only reports whether there is a next page. fields=title,status,... returns only the listed fields (and the id)")
+    public ResponseEntity<?> getTasks(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "25") int size,
             @RequestParam(defaultValue = "createdAt") String sortBy,
@@ -54,44 +70,210 @@ public class TaskController {
             @RequestParam(required = false) TaskStatus status,
             @RequestParam(required = false) String priority,
             @RequestParam(required = false) String search,
+            @RequestParam(defaultValue = "FULLTEXT") SearchMode searchMode,
             @RequestParam(required = false) Instant dueDateFrom,
             @RequestParam(required = false) Instant dueDateTo,
-            Authentication authentication) {
+            @RequestParam(defaultValue = "exact") String totals,
+            @RequestParam(required = false) String fields,
+            Authentication authentication,
+            WebRequest webRequest) {
         @SuppressWarnings("unchecked")
         Map<String, String> principal = (Map<String, String>) authentication.getPrincipal();
         String userId = principal.get("userId");
+
+        // Answers 304 Not Modified without running the list queries when the client's copy is current; pages are
+        // cached under the same fingerprint
+        String fingerprint = taskService.getTaskListFingerprint(userId);
+        if (ETagUtil.checkListNotModified(fingerprint, webRequest)) {
+            return null;
+        }
         
         Sort.Direction direction = sortDirection.equalsIgnoreCase("ASC") ? Sort.Direction.ASC : Sort.Direction.DESC;
         Pageable pageable = PageRequest.of(page, size, Sort.by(direction, sortBy));
+        TotalsMode totalsMode = TotalsMode.fromParam(totals);
+        TaskFilter filter = TaskFilter.builder()
+                .status(status)
+                .priority(priority)
+                .search(search)
+                .searchMode(searchMode)
+                .dueDateFrom(dueDateFrom)
+                .dueDateTo(dueDateTo)
+                .build();
+
+        // Without a total the response has a different shape: a hasNext flag instead of the page counts
+        if (totalsMode == TotalsMode.NONE) {
+            if (fields != null) {
+                return ResponseEntity.ok(taskService.getTaskFieldsSliceByUserId(userId, filter, fields, pageable));
+            }
+            return ResponseEntity.ok(taskService.getTaskSliceByUserId(userId, filter, pageable));
+        }
+
+        if (fields != null) {
+            return ResponseEntity.ok(PageResponse.of(taskService.getTaskFieldsByUserId(userId, filter, fields, totalsMode, pageable, fingerprint)));
+        }
         
         Page<TaskResponse> tasks = taskService.getTasksByUserId(
-            userId, status, priority, search, dueDateFrom, dueDateTo, pageable
+            userId, status, priority, search, searchMode, dueDateFrom, dueDateTo, totalsMode, pageable, fingerprint
+        );
+        return ResponseEntity.ok(PageResponse.of(tasks));
+    }
+
+    @GetMapping("/cursor")
+    @Operation(summary = "Get user tasks by cursor", description = "Get tasks for the authenticated user using keyset pagination. Pass the nextCursor of a page as 'after' to fetch the following page. size is between 1 and 100")
+    public ResponseEntity<CursorPageResponse<TaskResponse>> getTasksByCursor(
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "25") int size,
+            @RequestParam(defaultValue = "createdAt") String sortBy,
+            @RequestParam(defaultValue = "DESC") String sortDirection,
+            @RequestParam(required = false) TaskStatus status,
+            @RequestParam(required = false) String priority,
+            @RequestParam(required = false) String search,
+            @RequestParam(defaultValue = "FULLTEXT") SearchMode searchMode,
+            @RequestParam(required = false) Instant dueDateFrom,
+            @RequestParam(required = false) Instant dueDateTo,
+            Authentication authentication,
+            WebRequest webRequest) {
+        @SuppressWarnings("unchecked")
+        Map<String, String> principal = (Map<String, String>) authentication.getPrincipal();
+        String userId = principal.get("userId");
+
+        if (ETagUtil.checkListNotModified(taskService.getTaskListFingerprint(userId), webRequest)) {
+            return null;
+        }
+
+        Sort.Direction direction = sortDirection.equalsIgnoreCase("ASC") ? Sort.Direction.ASC : Sort.Direction.DESC;
+        TaskFilter filter = TaskFilter.builder()
+                .status(status)
+                .priority(priority)
+                .search(search)
+                .searchMode(searchMode)
+                .dueDateFrom(dueDateFrom)
+                .dueDateTo(dueDateTo)
+                .build();
+
+        CursorPageResponse<TaskResponse> tasks = taskService.getTasksByUserIdAfterCursor(
+            userId, filter, sortBy, direction, after, size
         );
         return ResponseEntity.ok(tasks);
     }
 
+    @PostMapping("/batch")
+    @Operation(summary = "Apply a batch of task operations", description = "Create, update and delete up to " + BatchTaskRequest.MAX_OPERATIONS + " tasks in one transaction. Every operation gets its own result; failed operations don't stop the others")
+    public ResponseEntity<BatchTaskResponse> applyBatch(
+            @Valid @RequestBody BatchTaskRequest request,
+            Authentication authentication) {
+        @SuppressWarnings("unchecked")
+        Map<String, String> principal = (Map<String, String>) authentication.getPrincipal();
+        String userId = principal.get("userId");
+        BatchTaskResponse response = taskService.applyBatch(request, userId);
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/batch")
+    @Operation(summary = "Get tasks by ids", description = "Get up to " + BatchTaskRequest.MAX_OPERATIONS + " tasks of the authenticated user by id, in the requested order. Unknown ids are left out")
+    public ResponseEntity<List<TaskResponse>> getTasksByIds(
+            @RequestParam List<UUID> ids,
+            Authentication authentication) {
+        @SuppressWarnings("unchecked")
+        Map<String, String> principal = (Map<String, String>) authentication.getPrincipal();
+        String userId = principal.get("userId");
+        List<TaskResponse> tasks = taskService.getTasksByIds(ids, userId);
+        return ResponseEntity.ok(tasks);
+    }
+
+    @GetMapping("/stats")
+    @Operation(summary = "Get task statistics", description = "Count the tasks of the authenticated user by status and by priority, and how many are overdue (not done and past their due date)")
+    public ResponseEntity<TaskStatsResponse> getTaskStats(Authentication authentication) {
+        @SuppressWarnings("unchecked")
+        Map<String, String> principal = (Map<String, String>) authentication.getPrincipal();
+        String userId = principal.get("userId");
+        TaskStatsResponse stats = taskService.getTaskStats(userId);
+        return ResponseEntity.ok(stats);
+    }
+
+    @GetMapping("/changes")
+    @Operation(summary = "Get task changes", description = "Get the tasks of the authenticated user created, changed or deleted since a cursor, oldest change first, at most size (up to " + TaskChangesResponse.MAX_SIZE + ") at a time. Start without since and pass back the returned cursor. When resyncRequired is set, the cursor is too old: drop the local tasks and start again without since")
+    public ResponseEntity<TaskChangesResponse> getTaskChanges(
+            @RequestParam(required = false) String since,
+            @RequestParam(defaultValue = "100") int size,
+            Authentication authentication) {
+        @SuppressWarnings("unchecked")
+        Map<String, String> principal = (Map<String, String>) authentication.getPrincipal();
+        String userId = principal.get("userId");
+        TaskChangesResponse changes = taskService.getTaskChanges(userId, since, size);
+        return ResponseEntity.ok(changes);
+    }
+
+    @GetMapping("/export")
+    @Operation(summary = "Export user tasks", description = "Stream all tasks of the authenticated user matching the same filters as the task list, oldest first, as NDJSON (format=ndjson, default) or CSV (format=csv). Gzip-compressed when the client accepts it")
+    public void exportTasks(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(required = false) TaskStatus status,
+            @RequestParam(required = false) String priority,
+            @RequestParam(required = false) String search,
+            @RequestParam(defaultValue = "FULLTEXT") SearchMode searchMode,
+            @RequestParam(required = false) Instant dueDateFrom,
+            @RequestParam(required = false) Instant dueDateTo,
+            Authentication authentication,
+            HttpServletResponse response) throws IOException {
+        @SuppressWarnings("unchecked")
+        Map<String, String> principal = (Map<String, String>) authentication.getPrincipal();
+        String userId = principal.get("userId");
+
+        ExportFormat exportFormat = ExportFormat.fromParam(format);
+        TaskFilter filter = TaskFilter.builder()
+                .status(status)
+                .priority(priority)
+                .search(search)
+                .searchMode(searchMode)
+                .dueDateFrom(dueDateFrom)
+                .dueDateTo(dueDateTo)
+                .build();
+
+        response.setContentType(exportFormat.getContentType() + ";charset=UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"tasks." + exportFormat.getExtension() + "\"");
+        // Gzip is left to server.compression, which negotiates Accept-Encoding including q-values and adds Vary
+        taskService.exportTasks(userId, filter, exportFormat, response.getOutputStream());
+    }
+
     @PutMapping("/{taskId}")
-    @Operation(summary = "Update a task", description = "Update an existing task for the authenticated user")
+    @Operation(summary = "Update a task", description = "Update an existing task for the authenticated user. Send the task's ETag as If-Match to only update it if nobody changed it since (412 otherwise)")
     public ResponseEntity<TaskResponse> updateTask(
             @PathVariable UUID taskId,
             @Valid @RequestBody UpdateTaskRequest request,
+            @RequestHeader(value = "If-Match", required = false) String ifMatch,
             Authentication authentication) {
         @SuppressWarnings("unchecked")
         Map<String, String> principal = (Map<String, String>) authentication.getPrincipal();
         String userId = principal.get("userId");
-        TaskResponse response = taskService.updateTask(taskId, request, userId);
-        return ResponseEntity.ok(response);
+        TaskResponse response = taskService.updateTask(taskId, request, userId, ETagUtil.expectedVersion(ifMatch));
+        return ResponseEntity.ok().eTag(ETagUtil.forVersion(response.getVersion())).body(response);
+    }
+
+    @PatchMapping("/{taskId}")
+    @Operation(summary = "Patch a task", description = "Change only the given fields of a task of the authenticated user, in a single statement. Honours If-Match like updating a task")
+    public ResponseEntity<TaskResponse> patchTask(
+            @PathVariable UUID taskId,
+            @Valid @RequestBody UpdateTaskRequest request,
+            @RequestHeader(value = "If-Match", required = false) String ifMatch,
+            Authentication authentication) {
+        @SuppressWarnings("unchecked")
+        Map<String, String> principal = (Map<String, String>) authentication.getPrincipal();
+        String userId = principal.get("userId");
+        TaskResponse response = taskService.patchTask(taskId, request, userId, ETagUtil.expectedVersion(ifMatch));
+        return ResponseEntity.ok().eTag(ETagUtil.forVersion(response.getVersion())).body(response);
     }
 
     @DeleteMapping("/{taskId}")
-    @Operation(summary = "Delete a task", description = "Delete an existing task for the authenticated user")
+    @Operation(summary = "Delete a task", description = "Delete an existing task for the authenticated user. Honours If-Match like updating a task")
     public ResponseEntity<Void> deleteTask(
             @PathVariable UUID taskId,
+            @RequestHeader(value = "If-Match", required = false) String ifMatch,
             Authentication authentication) {
         @SuppressWarnings("unchecked")
         Map<String, String> principal = (Map<String, String>) authentication.getPrincipal();
         String userId = principal.get("userId");
-        taskService.deleteTask(taskId, userId);
+        taskService.deleteTask(taskId, userId, ETagUtil.expectedVersion(ifMatch));
         return ResponseEntity.noContent().build();
     }
 }
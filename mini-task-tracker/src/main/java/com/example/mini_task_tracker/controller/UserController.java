@@ -48,9 +48,12 @@ public class UserController {
     }
 
     @PostMapping("/logout")
-    @Operation(summary = "Logout user", description = "Logout user by invalidating the refresh token")
-    public ResponseEntity<Void> logout(@Valid @RequestBody RefreshTokenRequest request) {
-        userService.logout(request.getRefreshToken());
+    @Operation(summary = "Logout user", description = "Logout user by invalidating the refresh token and, when sent as a bearer token, the access token")
+    public ResponseEntity<Void> logout(
+            @Valid @RequestBody RefreshTokenRequest request,
+            @RequestHeader(value = "Authorization", required = false) String authHeader) {
+        String accessToken = authHeader != null && authHeader.startsWith("Bearer ") ? authHeader.substring(7) : null;
+        userService.logout(request.getRefreshToken(), accessToken);
         return ResponseEntity.noContent().build();
     }
 
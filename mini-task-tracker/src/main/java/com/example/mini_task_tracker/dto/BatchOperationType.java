@@ -0,0 +1,7 @@
+package com.example.mini_task_tracker.dto;
+
+public enum BatchOperationType {
+    CREATE,
+    UPDATE,
+    DELETE
+}
@@ -0,0 +1,37 @@
+package com.example.mini_task_tracker.dto;
+
+import com.example.mini_task_tracker.entity.TaskStatus;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.UUID;
+
+// One operation of a batch. CREATE takes the task fields, UPDATE the id and the fields to change,
+// DELETE only the id. Fields are validated per operation, like CreateTaskRequest and UpdateTaskRequest.
+// UPDATE and DELETE can pass the version they expect, like If-Match on the single-task endpoints.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BatchTaskOperation {
+    @NotNull(message = "Operation type is required")
+    private BatchOperationType type;
+
+    private UUID id;
+
+    private Long version;
+
+    private String title;
+
+    private String description;
+
+    private TaskStatus status;
+
+    private String priority;
+
+    private Instant dueDate;
+}
@@ -0,0 +1,18 @@
+package com.example.mini_task_tracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BatchTaskResponse {
+    private List<BatchTaskResult> results;
+    private int succeeded;
+    private int failed;
+}
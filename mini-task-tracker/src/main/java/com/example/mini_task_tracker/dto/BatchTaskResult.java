@@ -0,0 +1,23 @@
+package com.example.mini_task_tracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+// Outcome of one batch operation, at the same index as the operation in the request.
+// status is the HTTP status the operation would have had on its own endpoint.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BatchTaskResult {
+    private int index;
+    private BatchOperationType type;
+    private UUID id;
+    private int status;
+    private TaskResponse task;
+    private String error;
+}
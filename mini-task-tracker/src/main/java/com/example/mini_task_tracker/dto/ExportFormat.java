@@ -0,0 +1,35 @@
+package com.example.mini_task_tracker.dto;
+
+import com.example.mini_task_tracker.exception.CustomException;
+import org.springframework.http.HttpStatus;
+
+// Formats of the task export, with the content type and file extension of each
+public enum ExportFormat {
+    NDJSON("application/x-ndjson", "ndjson"),
+    CSV("text/csv", "csv");
+
+    private final String contentType;
+    private final String extension;
+
+    ExportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public static ExportFormat fromParam(String value) {
+        for (ExportFormat format : values()) {
+            if (format.name().equalsIgnoreCase(value)) {
+                return format;
+            }
+        }
+        throw new CustomException("Unsupported export format: " + value + ". Use ndjson or csv", HttpStatus.BAD_REQUEST);
+    }
+}
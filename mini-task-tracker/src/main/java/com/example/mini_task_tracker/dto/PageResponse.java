@@ -0,0 +1,37 @@
+package com.example.mini_task_tracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Page;
+
+import java.util.List;
+
+/**
+ * A page of results with only the numbers clients use, in the same shape Spring Data's {@code PagedModel} has
+ * always given this API.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PageResponse<T> {
+    private List<T> content;
+    private PageMetadata page;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class PageMetadata {
+        private int size;
+        private int number;
+        private long totalElements;
+        private int totalPages;
+    }
+
+    public static <T> PageResponse<T> of(Page<T> page) {
+        return new PageResponse<>(page.getContent(),
+                new PageMetadata(page.getSize(), page.getNumber(), page.getTotalElements(), page.getTotalPages()));
+    }
+}
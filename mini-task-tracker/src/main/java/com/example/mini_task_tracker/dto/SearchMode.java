@@ -0,0 +1,6 @@
+package com.example.mini_task_tracker.dto;
+
+public enum SearchMode {
+    FULLTEXT,
+    SUBSTRING
+}
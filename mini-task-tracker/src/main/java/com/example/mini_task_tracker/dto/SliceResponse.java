@@ -0,0 +1,19 @@
+package com.example.mini_task_tracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SliceResponse<T> {
+    private List<T> content;
+    private int size;
+    private int number;
+    private boolean hasNext;
+}
@@ -0,0 +1,27 @@
+package com.example.mini_task_tracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TaskChangesResponse {
+    public static final int MAX_SIZE = 500;
+
+    // Tasks created or changed after the cursor, in their current state
+    private List<TaskResponse> upserted;
+    // Tasks deleted after the cursor
+    private List<UUID> deleted;
+    // Pass as since to fetch the changes after these; null when a resync is required
+    private String cursor;
+    private boolean hasMore;
+    // The cursor is older than the kept deletions: drop the local tasks and sync again without since
+    private boolean resyncRequired;
+}
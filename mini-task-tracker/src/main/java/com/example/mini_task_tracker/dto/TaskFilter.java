@@ -0,0 +1,31 @@
+package com.example.mini_task_tracker.dto;
+
+import com.example.mini_task_tracker.entity.TaskStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TaskFilter {
+    private TaskStatus status;
+
+    private String priority;
+
+    private String search;
+
+    private SearchMode searchMode;
+
+    private Instant dueDateFrom;
+
+    private Instant dueDateTo;
+
+    public boolean hasFilters() {
+        return status != null || priority != null || search != null || dueDateFrom != null || dueDateTo != null;
+    }
+}
@@ -1,10 +1,12 @@
 package com.example.mini_task_tracker.dto;
 
 import com.example.mini_task_tracker.entity.TaskStatus;
+import com.example.mini_task_tracker.util.TaskResponseSerializer;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import tools.jackson.databind.annotation.JsonSerialize;
 
 import java.time.Instant;
 import java.util.UUID;
@@ -13,6 +15,7 @@ import java.util.UUID;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
+@JsonSerialize(using = TaskResponseSerializer.class)
 public class TaskResponse {
     private UUID id;
     private String title;
@@ -23,4 +26,5 @@ public class TaskResponse {
     private Instant createdAt;
     private Instant updatedAt;
     private UUID userId;
+    private Long version;
 }
@@ -0,0 +1,24 @@
+package com.example.mini_task_tracker.dto;
+
+import com.example.mini_task_tracker.entity.TaskStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TaskStatsResponse {
+    private long total;
+    // Every status, including those without tasks
+    private Map<TaskStatus, Long> byStatus;
+    // Only priorities that have tasks; tasks without a priority are counted in withoutPriority
+    private Map<String, Long> byPriority;
+    private long withoutPriority;
+    // Not done and past their due date
+    private long overdue;
+}
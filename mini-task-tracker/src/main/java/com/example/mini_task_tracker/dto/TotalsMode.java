@@ -0,0 +1,20 @@
+package com.example.mini_task_tracker.dto;
+
+import com.example.mini_task_tracker.exception.CustomException;
+import org.springframework.http.HttpStatus;
+
+// How the total of a task page is computed. Pages without a total (NONE) are served as a SliceResponse.
+public enum TotalsMode {
+    EXACT,
+    ESTIMATE,
+    NONE;
+
+    public static TotalsMode fromParam(String value) {
+        for (TotalsMode mode : values()) {
+            if (mode.name().equalsIgnoreCase(value)) {
+                return mode;
+            }
+        }
+        throw new CustomException("Unsupported totals mode: " + value + ". Use exact, estimate or none", HttpStatus.BAD_REQUEST);
+    }
+}
@@ -24,4 +24,8 @@ public class UpdateTaskRequest {
     private String priority;
 
     private Instant dueDate;
+
+    public boolean hasChanges() {
+        return title != null || description != null || status != null || priority != null || dueDate != null;
+    }
 }
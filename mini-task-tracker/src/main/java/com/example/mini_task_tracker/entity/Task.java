@@ -49,6 +49,14 @@ public class Task {
     @Column(nullable = false, name = "user_id")
     private UUID userId;
 
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
+    // Number of the task's latest change in its user's change sequence, see GET /api/tasks/changes
+    @Column(nullable = false, name = "change_seq")
+    private Long changeSeq;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", insertable = false, updatable = false)
     private User user;
@@ -1,6 +1,9 @@
 package com.example.mini_task_tracker.filter;
 
+import com.example.mini_task_tracker.cache.RevokedTokenCache;
+import com.example.mini_task_tracker.util.JwtClaims;
 import com.example.mini_task_tracker.util.JwtUtil;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -22,6 +25,8 @@ import java.util.Map;
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
+    private final RevokedTokenCache revokedTokenCache;
+    private final MeterRegistry meterRegistry;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
@@ -36,24 +41,25 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         try {
             final String jwt = authHeader.substring(7);
-            final String userEmail = jwtUtil.extractUsername(jwt);
-            final String userId = jwtUtil.extractUserId(jwt);
+            // Verifies signature and expiry once and yields all the claims we need
+            final JwtClaims claims = meterRegistry.timer("jwt.verify").record(() -> jwtUtil.verifyToken(jwt));
 
-            if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                if (jwtUtil.validateToken(jwt, userEmail)) {
-                    // Store userId in the principal as a map
-                    Map<String, String> principal = new HashMap<>();
-                    principal.put("email", userEmail);
-                    principal.put("userId", userId);
-                    
-                    UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                            principal,
-                            null,
-                            new ArrayList<>()
-                    );
-                    authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                    SecurityContextHolder.getContext().setAuthentication(authToken);
-                }
+            // Revoked tokens (e.g. after logout) stay unauthenticated; the check is in-memory
+            if (claims.username() != null
+                    && !revokedTokenCache.isRevoked(claims.tokenId())
+                    && SecurityContextHolder.getContext().getAuthentication() == null) {
+                // Store userId in the principal as a map
+                Map<String, String> principal = new HashMap<>();
+                principal.put("email", claims.username());
+                principal.put("userId", claims.userId());
+
+                UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                        principal,
+                        null,
+                        new ArrayList<>()
+                );
+                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                SecurityContextHolder.getContext().setAuthentication(authToken);
             }
         } catch (Exception e) {
             logger.error("Cannot set user authentication: {}", e);
@@ -0,0 +1,91 @@
+package com.example.mini_task_tracker.filter;
+
+import com.example.mini_task_tracker.util.SqlStatementCounter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.web.util.OnCommittedResponseWrapper;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Locale;
+
+/**
+ * Counts the SQL statements each request executes and the time spent executing them, as the
+ * {@code http.sql.statements} and {@code http.sql.time} meters tagged by method and route. Requests over
+ * {@code sql-statements.budget} are logged. With {@code sql-statements.debug-header} the response also carries
+ * {@code X-SQL-Statements} and a {@code Server-Timing} entry, as of when it was committed.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "sql-statements.enabled", havingValue = "true")
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class SqlStatementBudgetFilter extends OncePerRequestFilter {
+
+    private final MeterRegistry meterRegistry;
+    private final int budget;
+    private final boolean debugHeader;
+
+    public SqlStatementBudgetFilter(
+            MeterRegistry meterRegistry,
+            @Value("${sql-statements.budget:20}") int budget,
+            @Value("${sql-statements.debug-header:false}") boolean debugHeader) {
+        this.meterRegistry = meterRegistry;
+        this.budget = budget;
+        this.debugHeader = debugHeader;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        try (SqlStatementCounter.Scope sql = SqlStatementCounter.open()) {
+            HttpServletResponse wrapped = debugHeader ? new OnCommittedResponseWrapper(response) {
+                @Override
+                protected void onResponseCommitted() {
+                    addDebugHeaders(response, sql);
+                }
+            } : response;
+            try {
+                filterChain.doFilter(request, wrapped);
+            } finally {
+                // Responses without a body are only committed after the filters are done
+                if (debugHeader && !response.isCommitted()) {
+                    addDebugHeaders(response, sql);
+                }
+                record(request, sql);
+            }
+        }
+    }
+
+    private void addDebugHeaders(HttpServletResponse response, SqlStatementCounter.Scope sql) {
+        response.setHeader("X-SQL-Statements", Integer.toString(sql.statements()));
+        response.addHeader("Server-Timing", String.format(Locale.ROOT, "sql;dur=%.2f;desc=\"%d statements\"",
+                sql.executionTime().toNanos() / 1e6, sql.statements()));
+    }
+
+    private void record(HttpServletRequest request, SqlStatementCounter.Scope sql) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+        DistributionSummary.builder("http.sql.statements")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(sql.statements());
+        meterRegistry.timer("http.sql.time", "method", request.getMethod(), "uri", uri).record(sql.executionTime());
+
+        if (budget > 0 && sql.statements() > budget) {
+            log.warn("{} {} executed {} SQL statements in {} ms, over the budget of {}", request.getMethod(),
+                    request.getRequestURI(), sql.statements(), sql.executionTime().toMillis(), budget);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.mini_task_tracker.job;
+
+import com.example.mini_task_tracker.repository.RefreshTokenRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * Deletes expired refresh tokens, which otherwise only go away when someone presents them. Works through them in
+ * bounded batches, each in its own short transaction, so live logins never wait long on the purge.
+ */
+@Slf4j
+@Component
+public class RefreshTokenPurgeJob {
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final int batchSize;
+    private final Counter purged;
+    private final Timer purgeTimer;
+
+    public RefreshTokenPurgeJob(
+            RefreshTokenRepository refreshTokenRepository,
+            @Value("${refresh-token-purge.batch-size:1000}") int batchSize,
+            MeterRegistry meterRegistry) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.batchSize = batchSize;
+        this.purged = meterRegistry.counter("refresh_tokens.purged");
+        this.purgeTimer = meterRegistry.timer("refresh_tokens.purge");
+    }
+
+    @Scheduled(
+            initialDelayString = "${refresh-token-purge.initial-delay:1m}",
+            fixedDelayString = "${refresh-token-purge.interval:1h}")
+    public void purgeExpiredTokens() {
+        purgeTimer.record(() -> {
+            LocalDateTime now = LocalDateTime.now();
+            long total = 0;
+            int deleted;
+            do {
+                deleted = refreshTokenRepository.deleteExpiredBatch(now, batchSize);
+                purged.increment(deleted);
+                total += deleted;
+            } while (deleted == batchSize);
+            if (total > 0) {
+                log.info("Purged {} expired refresh tokens", total);
+            }
+        });
+    }
+}
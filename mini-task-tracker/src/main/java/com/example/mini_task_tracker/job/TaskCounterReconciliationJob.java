@@ -0,0 +1,56 @@
+package com.example.mini_task_tracker.job;
+
+import com.example.mini_task_tracker.repository.TaskRepository;
+import com.example.mini_task_tracker.repository.TaskRepositoryCustom.CounterRepair;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * Recounts every user's tasks and repairs the task counters behind the statistics endpoint where they drifted, e.g.
+ * after tasks were changed directly in the database. Goes through the users in batches, each in its own transaction.
+ */
+@Slf4j
+@Component
+public class TaskCounterReconciliationJob {
+
+    private final TaskRepository taskRepository;
+    private final int batchSize;
+    private final Counter repaired;
+    private final Timer reconcileTimer;
+
+    public TaskCounterReconciliationJob(
+            TaskRepository taskRepository,
+            @Value("${task-counter-reconciliation.batch-size:500}") int batchSize,
+            MeterRegistry meterRegistry) {
+        this.taskRepository = taskRepository;
+        this.batchSize = batchSize;
+        this.repaired = meterRegistry.counter("task_counters.repaired");
+        this.reconcileTimer = meterRegistry.timer("task_counters.reconcile");
+    }
+
+    @Scheduled(
+            initialDelayString = "${task-counter-reconciliation.initial-delay:5m}",
+            fixedDelayString = "${task-counter-reconciliation.interval:6h}")
+    public void reconcileCounters() {
+        reconcileTimer.record(() -> {
+            UUID lastUserId = null;
+            long total = 0;
+            do {
+                CounterRepair repair = taskRepository.repairCounters(lastUserId, batchSize);
+                repaired.increment(repair.repairedCounters());
+                total += repair.repairedCounters();
+                lastUserId = repair.lastUserId();
+            } while (lastUserId != null);
+            if (total > 0) {
+                log.warn("Repaired {} task counters that had drifted from the tasks", total);
+            }
+        });
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.mini_task_tracker.job;
+
+import com.example.mini_task_tracker.repository.TaskRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Deletes the tombstones of tasks deleted longer than {@code retention} ago, which the change feed would otherwise
+ * keep forever. Clients that haven't synced within the retention are told to resync instead. Works in bounded
+ * batches, each in its own short transaction.
+ */
+@Slf4j
+@Component
+public class TaskTombstonePurgeJob {
+
+    private final TaskRepository taskRepository;
+    private final Duration retention;
+    private final int batchSize;
+    private final Counter purged;
+    private final Timer purgeTimer;
+
+    public TaskTombstonePurgeJob(
+            TaskRepository taskRepository,
+            @Value("${task-tombstone-purge.retention:30d}") Duration retention,
+            @Value("${task-tombstone-purge.batch-size:1000}") int batchSize,
+            MeterRegistry meterRegistry) {
+        this.taskRepository = taskRepository;
+        this.retention = retention;
+        this.batchSize = batchSize;
+        this.purged = meterRegistry.counter("task_tombstones.purged");
+        this.purgeTimer = meterRegistry.timer("task_tombstones.purge");
+    }
+
+    @Scheduled(
+            initialDelayString = "${task-tombstone-purge.initial-delay:2m}",
+            fixedDelayString = "${task-tombstone-purge.interval:1h}")
+    public void purgeOldTombstones() {
+        purgeTimer.record(() -> {
+            Instant deletedBefore = Instant.now().minus(retention);
+            long total = 0;
+            int deleted;
+            do {
+                deleted = taskRepository.purgeTombstonesBatch(deletedBefore, batchSize);
+                purged.increment(deleted);
+                total += deleted;
+            } while (deleted == batchSize);
+            if (total > 0) {
+                log.info("Purged {} task tombstones older than {}", total, retention);
+            }
+        });
+    }
+}
@@ -1,15 +1,47 @@
 package com.example.mini_task_tracker.repository;
 
 import com.example.mini_task_tracker.entity.RefreshToken;
-import com.example.mini_task_tracker.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface RefreshTokenRepository extends JpaRepository<RefreshToken, UUID> {
     Optional<RefreshToken> findByToken(String token);
-    void deleteByUser(User user);
+
+    // One statement instead of loading and deleting the user's tokens one by one
+    @Modifying
+    @Query(value = "DELETE FROM refresh_tokens r WHERE r.user_id = CAST(:userId AS uuid)", nativeQuery = true)
+    int deleteByUserId(@Param("userId") UUID userId);
+
+    // Inserts the user's token or replaces the one they have, in a single statement
+    @Modifying
+    @Query(value = "INSERT INTO refresh_tokens (id, token, user_id, expiry_date, created_at) " +
+           "VALUES (CAST(:id AS uuid), :token, CAST(:userId AS uuid), CAST(:expiryDate AS timestamp), CAST(:createdAt AS timestamp)) " +
+           "ON CONFLICT (user_id) DO UPDATE SET id = EXCLUDED.id, token = EXCLUDED.token, " +
+           "expiry_date = EXCLUDED.expiry_date, created_at = EXCLUDED.created_at",
+           nativeQuery = true)
+    int upsertForUser(
+            @Param("id") UUID id,
+            @Param("token") String token,
+            @Param("userId") UUID userId,
+            @Param("expiryDate") LocalDateTime expiryDate,
+            @Param("createdAt") LocalDateTime createdAt);
+
+    // Deletes up to batchSize expired tokens in its own short transaction. Rows locked by a concurrent login are
+    // skipped rather than waited for; the next run picks them up.
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM refresh_tokens WHERE id IN (" +
+           "SELECT r.id FROM refresh_tokens r WHERE r.expiry_date < CAST(:now AS timestamp) " +
+           "ORDER BY r.expiry_date LIMIT :batchSize FOR UPDATE SKIP LOCKED)",
+           nativeQuery = true)
+    int deleteExpiredBatch(@Param("now") LocalDateTime now, @Param("batchSize") int batchSize);
 }
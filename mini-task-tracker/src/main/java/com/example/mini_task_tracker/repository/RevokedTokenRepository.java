@@ -0,0 +1,30 @@
+package com.example.mini_task_tracker.repository;
+
+import com.example.mini_task_tracker.entity.RevokedToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, String> {
+    List<RevokedToken> findByExpiresAtAfter(Instant now);
+
+    // Revoking a token twice (e.g. a repeated logout) is not an error
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO revoked_tokens (jti, expires_at) VALUES (:jti, CAST(:expiresAt AS timestamp)) " +
+           "ON CONFLICT (jti) DO NOTHING",
+           nativeQuery = true)
+    int insertIfAbsent(@Param("jti") String jti, @Param("expiresAt") Instant expiresAt);
+
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM revoked_tokens r WHERE r.expires_at < CAST(:now AS timestamp)", nativeQuery = true)
+    int deleteExpired(@Param("now") Instant now);
+}
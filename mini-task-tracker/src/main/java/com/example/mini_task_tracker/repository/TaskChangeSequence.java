@@ -0,0 +1,8 @@
+package com.example.mini_task_tracker.repository;
+
+// A user's row of task_change_sequences: the last change number taken and the highest purged tombstone
+public interface TaskChangeSequence {
+    long getLastSeq();
+
+    long getPurgedThrough();
+}
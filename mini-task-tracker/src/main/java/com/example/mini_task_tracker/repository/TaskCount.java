@@ -0,0 +1,12 @@
+package com.example.mini_task_tracker.repository;
+
+import com.example.mini_task_tracker.entity.TaskStatus;
+
+// A user's number of tasks with one status and priority, read from task_counters; priority is '' for none
+public interface TaskCount {
+    TaskStatus getStatus();
+
+    String getPriority();
+
+    long getTaskCount();
+}
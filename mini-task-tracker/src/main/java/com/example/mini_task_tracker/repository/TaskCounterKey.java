@@ -0,0 +1,7 @@
+package com.example.mini_task_tracker.repository;
+
+import com.example.mini_task_tracker.entity.TaskStatus;
+
+// One row of task_counters for a user; priority is null for tasks without one
+public record TaskCounterKey(TaskStatus status, String priority) {
+}
@@ -3,32 +3,114 @@ package com.example.mini_task_tracker.repository;
 import com.example.mini_task_tracker.entity.Task;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
-public interface TaskRepository extends JpaRepository<Task, UUID> {
-    Page<Task> findByUserId(UUID userId, Pageable pageable);
-    
-    @Query(value = "SELECT * FROM tasks t WHERE t.user_id = CAST(:userId AS uuid) " +
+public interface TaskRepository extends JpaRepository<Task, UUID>, TaskRepositoryCustom {
+    // Shared WHERE clauses of the filter queries below, so the paged and the count-free variants can't drift apart
+    String FILTER_CONDITIONS = "WHERE t.user_id = CAST(:userId AS uuid) " +
            "AND (CAST(:status AS text) IS NULL OR t.status = CAST(:status AS task_status)) " +
            "AND (CAST(:priority AS text) IS NULL OR LOWER(t.priority) = LOWER(CAST(:priority AS text))) " +
            "AND (CAST(:search AS text) IS NULL OR LOWER(t.title) LIKE LOWER(CONCAT('%', CAST(:search AS text), '%')) " +
            "     OR LOWER(t.description) LIKE LOWER(CONCAT('%', CAST(:search AS text), '%'))) " +
            "AND (CAST(:dueDateFrom AS timestamp) IS NULL OR t.due_date >= CAST(:dueDateFrom AS timestamp)) " +
-           "AND (CAST(:dueDateTo AS timestamp) IS NULL OR t.due_date <= CAST(:dueDateTo AS timestamp))",
-           countQuery = "SELECT COUNT(*) FROM tasks t WHERE t.user_id = CAST(:userId AS uuid) " +
+           "AND (CAST(:dueDateTo AS timestamp) IS NULL OR t.due_date <= CAST(:dueDateTo AS timestamp))";
+
+    String FULL_TEXT_CONDITIONS = "WHERE t.user_id = CAST(:userId AS uuid) " +
+           "AND t.search_vector @@ to_tsquery('english', CAST(:query AS text)) " +
            "AND (CAST(:status AS text) IS NULL OR t.status = CAST(:status AS task_status)) " +
            "AND (CAST(:priority AS text) IS NULL OR LOWER(t.priority) = LOWER(CAST(:priority AS text))) " +
-           "AND (CAST(:search AS text) IS NULL OR LOWER(t.title) LIKE LOWER(CONCAT('%', CAST(:search AS text), '%')) " +
-           "     OR LOWER(t.description) LIKE LOWER(CONCAT('%', CAST(:search AS text), '%'))) " +
            "AND (CAST(:dueDateFrom AS timestamp) IS NULL OR t.due_date >= CAST(:dueDateFrom AS timestamp)) " +
-           "AND (CAST(:dueDateTo AS timestamp) IS NULL OR t.due_date <= CAST(:dueDateTo AS timestamp))",
+           "AND (CAST(:dueDateTo AS timestamp) IS NULL OR t.due_date <= CAST(:dueDateTo AS timestamp))";
+
+    // Full-text variant of the search filter, served by the GIN index on search_vector.
+    // Exposes the relevance score as "rank" so callers can sort on it.
+    String RANKED_TASKS = "(SELECT t.*, ts_rank_cd(t.search_vector, to_tsquery('english', CAST(:query AS text))) AS rank " +
+           "FROM tasks t " + FULL_TEXT_CONDITIONS + ") t";
+
+    String FULL_TEXT_QUERY = "SELECT * FROM " + RANKED_TASKS;
+
+    // Columns of TaskSummary; aliases are quoted so they keep the case of the projection's properties
+    String SUMMARY_COLUMNS = "t.id AS \"id\", t.title AS \"title\", CAST(t.status AS text) AS \"status\", " +
+           "t.priority AS \"priority\", t.due_date AS \"dueDate\", t.created_at AS \"createdAt\", " +
+           "t.updated_at AS \"updatedAt\", t.user_id AS \"userId\"";
+
+    String FULL_TEXT_SUMMARY_QUERY = "SELECT " + SUMMARY_COLUMNS + " FROM " + RANKED_TASKS;
+
+    Page<Task> findByUserId(UUID userId, Pageable pageable);
+
+    // Multi-get in one statement; tasks of other users are filtered out by the query itself
+    @Query(value = "SELECT * FROM tasks t WHERE t.id = ANY(CAST(:ids AS uuid[])) AND t.user_id = CAST(:userId AS uuid)",
+           nativeQuery = true)
+    List<Task> findAllByIdsAndUserId(@Param("ids") UUID[] ids, @Param("userId") UUID userId);
+
+    // Tells a missed conditional write's 404 from its 403 without loading the task
+    @Query(value = "SELECT t.user_id FROM tasks t WHERE t.id = CAST(:id AS uuid)", nativeQuery = true)
+    Optional<UUID> findUserIdById(@Param("id") UUID id);
+
+    // Writers lock the tasks they change before the user's change sequence (see takeChangeSeqs); in id order, so
+    // that batches touching the same tasks can't deadlock on them either
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t FROM Task t WHERE t.id = :id")
+    Optional<Task> findByIdForUpdate(@Param("id") UUID id);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t FROM Task t WHERE t.id IN :ids ORDER BY t.id")
+    List<Task> findAllByIdForUpdate(@Param("ids") Collection<UUID> ids);
+
+    // Changes whenever one of the user's tasks is created, updated or deleted; backs the list ETags. The user's
+    // change sequence only ever grows with each write, unlike timestamps from the clocks of several instances.
+    // "0" for users who never wrote a task.
+    @Query(value = "SELECT CAST(COALESCE(MAX(s.last_seq), 0) AS text) FROM task_change_sequences s " +
+                   "WHERE s.user_id = CAST(:userId AS uuid)",
+           nativeQuery = true)
+    String findFingerprintByUserId(@Param("userId") UUID userId);
+
+    // The user's task counts by status and priority, without the ones that dropped to zero
+    @Query(value = "SELECT CAST(c.status AS text) AS \"status\", c.priority AS \"priority\", c.task_count AS \"taskCount\" " +
+           "FROM task_counters c WHERE c.user_id = CAST(:userId AS uuid) AND c.task_count <> 0",
+           nativeQuery = true)
+    List<TaskCount> findCountsByUserId(@Param("userId") UUID userId);
+
+    // Open tasks past their due date; the predicate matches the partial idx_tasks_user_due_date_open index
+    @Query(value = "SELECT COUNT(*) FROM tasks t WHERE t.user_id = CAST(:userId AS uuid) AND t.status <> 'DONE' " +
+           "AND t.due_date < CAST(:now AS timestamp)",
+           nativeQuery = true)
+    long countOverdueByUserId(@Param("userId") UUID userId, @Param("now") Instant now);
+
+    // Change feed: the user's tasks and tombstones changed after a sequence number, in sequence order
+    @Query(value = "SELECT * FROM tasks t WHERE t.user_id = CAST(:userId AS uuid) AND t.change_seq > :since " +
+                   "ORDER BY t.change_seq LIMIT :limit",
+           nativeQuery = true)
+    List<Task> findChangedAfter(@Param("userId") UUID userId, @Param("since") long since, @Param("limit") int limit);
+
+    @Query(value = "SELECT d.task_id AS \"taskId\", d.change_seq AS \"changeSeq\" FROM task_tombstones d " +
+                   "WHERE d.user_id = CAST(:userId AS uuid) AND d.change_seq > :since ORDER BY d.change_seq LIMIT :limit",
+           nativeQuery = true)
+    List<TaskTombstone> findTombstonesAfter(@Param("userId") UUID userId, @Param("since") long since, @Param("limit") int limit);
+
+    @Query(value = "SELECT s.last_seq AS \"lastSeq\", s.purged_through AS \"purgedThrough\" FROM task_change_sequences s " +
+                   "WHERE s.user_id = CAST(:userId AS uuid)",
+           nativeQuery = true)
+    Optional<TaskChangeSequence> findChangeSequenceByUserId(@Param("userId") UUID userId);
+
+    // Same as findByUserId without the count query; fetches one extra row to tell whether there is a next page
+    Slice<Task> findSliceByUserId(UUID userId, Pageable pageable);
+
+    @Query(value = "SELECT * FROM tasks t " + FILTER_CONDITIONS,
+           countQuery = "SELECT COUNT(*) FROM tasks t " + FILTER_CONDITIONS,
            nativeQuery = true)
     Page<Task> findByUserIdWithFilters(
         @Param("userId") UUID userId,
@@ -39,4 +121,93 @@ public interface TaskRepository extends JpaRepository<Task, UUID> {
         @Param("dueDateTo") Instant dueDateTo,
         Pageable pageable
     );
+
+    @Query(value = "SELECT * FROM tasks t " + FILTER_CONDITIONS, nativeQuery = true)
+    Slice<Task> findSliceByUserIdWithFilters(
+        @Param("userId") UUID userId,
+        @Param("status") String status,
+        @Param("priority") String priority,
+        @Param("search") String search,
+        @Param("dueDateFrom") Instant dueDateFrom,
+        @Param("dueDateTo") Instant dueDateTo,
+        Pageable pageable
+    );
+
+    @Query(value = FULL_TEXT_QUERY,
+           countQuery = "SELECT COUNT(*) FROM tasks t " + FULL_TEXT_CONDITIONS,
+           nativeQuery = true)
+    Page<Task> findByUserIdWithFullTextSearch(
+        @Param("userId") UUID userId,
+        @Param("status") String status,
+        @Param("priority") String priority,
+        @Param("query") String query,
+        @Param("dueDateFrom") Instant dueDateFrom,
+        @Param("dueDateTo") Instant dueDateTo,
+        Pageable pageable
+    );
+
+    @Query(value = FULL_TEXT_QUERY, nativeQuery = true)
+    Slice<Task> findSliceByUserIdWithFullTextSearch(
+        @Param("userId") UUID userId,
+        @Param("status") String status,
+        @Param("priority") String priority,
+        @Param("query") String query,
+        @Param("dueDateFrom") Instant dueDateFrom,
+        @Param("dueDateTo") Instant dueDateTo,
+        Pageable pageable
+    );
+
+    // TaskSummary variants of the list queries above. They read every column but description straight into
+    // the projection, without hydrating entities.
+    Page<TaskSummary> findSummaryByUserId(UUID userId, Pageable pageable);
+
+    Slice<TaskSummary> findSummarySliceByUserId(UUID userId, Pageable pageable);
+
+    @Query(value = "SELECT " + SUMMARY_COLUMNS + " FROM tasks t " + FILTER_CONDITIONS,
+           countQuery = "SELECT COUNT(*) FROM tasks t " + FILTER_CONDITIONS,
+           nativeQuery = true)
+    Page<TaskSummary> findSummaryByUserIdWithFilters(
+        @Param("userId") UUID userId,
+        @Param("status") String status,
+        @Param("priority") String priority,
+        @Param("search") String search,
+        @Param("dueDateFrom") Instant dueDateFrom,
+        @Param("dueDateTo") Instant dueDateTo,
+        Pageable pageable
+    );
+
+    @Query(value = "SELECT " + SUMMARY_COLUMNS + " FROM tasks t " + FILTER_CONDITIONS, nativeQuery = true)
+    Slice<TaskSummary> findSummarySliceByUserIdWithFilters(
+        @Param("userId") UUID userId,
+        @Param("status") String status,
+        @Param("priority") String priority,
+        @Param("search") String search,
+        @Param("dueDateFrom") Instant dueDateFrom,
+        @Param("dueDateTo") Instant dueDateTo,
+        Pageable pageable
+    );
+
+    @Query(value = FULL_TEXT_SUMMARY_QUERY,
+           countQuery = "SELECT COUNT(*) FROM tasks t " + FULL_TEXT_CONDITIONS,
+           nativeQuery = true)
+    Page<TaskSummary> findSummaryByUserIdWithFullTextSearch(
+        @Param("userId") UUID userId,
+        @Param("status") String status,
+        @Param("priority") String priority,
+        @Param("query") String query,
+        @Param("dueDateFrom") Instant dueDateFrom,
+        @Param("dueDateTo") Instant dueDateTo,
+        Pageable pageable
+    );
+
+    @Query(value = FULL_TEXT_SUMMARY_QUERY, nativeQuery = true)
+    Slice<TaskSummary> findSummarySliceByUserIdWithFullTextSearch(
+        @Param("userId") UUID userId,
+        @Param("status") String status,
+        @Param("priority") String priority,
+        @Param("query") String query,
+        @Param("dueDateFrom") Instant dueDateFrom,
+        @Param("dueDateTo") Instant dueDateTo,
+        Pageable pageable
+    );
 }
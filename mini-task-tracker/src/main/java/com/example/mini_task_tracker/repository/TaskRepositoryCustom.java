@@ -0,0 +1,48 @@
+package com.example.mini_task_tracker.repository;
+
+import com.example.mini_task_tracker.dto.TaskFilter;
+import com.example.mini_task_tracker.dto.UpdateTaskRequest;
+import com.example.mini_task_tracker.entity.Task;
+import com.example.mini_task_tracker.util.TaskCursor;
+import org.springframework.data.domain.Sort;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+public interface TaskRepositoryCustom {
+    List<Task> findByUserIdAfterCursor(
+        UUID userId,
+        TaskFilter filter,
+        String sortColumn,
+        Sort.Direction direction,
+        TaskCursor after,
+        int limit
+    );
+
+    long estimateCountByUserId(UUID userId, TaskFilter filter);
+
+    Optional<Task> updateByIdAndUserId(UUID taskId, UUID userId, UpdateTaskRequest changes, Long expectedVersion);
+
+    void forEachByUserId(UUID userId, TaskFilter filter, Consumer<Task> action);
+
+    boolean deleteByIdAndUserId(UUID taskId, UUID userId, Long expectedVersion);
+
+    void addToCounters(UUID userId, Map<TaskCounterKey, Long> deltas);
+
+    CounterRepair repairCounters(UUID afterUserId, int batchSize);
+
+    long takeChangeSeqs(UUID userId, int count);
+
+    void addTombstones(UUID userId, Map<UUID, Long> changeSeqs);
+
+    int purgeTombstonesBatch(Instant deletedBefore, int batchSize);
+
+    // Outcome of repairing one batch of users: the last user checked (null when there were none left) and how
+    // many counters were off
+    record CounterRepair(UUID lastUserId, int repairedCounters) {
+    }
+}
@@ -0,0 +1,567 @@
+package com.example.mini_task_tracker.repository;
+
+import com.example.mini_task_tracker.dto.SearchMode;
+import com.example.mini_task_tracker.dto.TaskFilter;
+import com.example.mini_task_tracker.dto.UpdateTaskRequest;
+import com.example.mini_task_tracker.entity.Task;
+import com.example.mini_task_tracker.entity.TaskStatus;
+import com.example.mini_task_tracker.exception.CustomException;
+import com.example.mini_task_tracker.util.SearchQueryUtil;
+import com.example.mini_task_tracker.util.TaskCursor;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.FlushModeType;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+public class TaskRepositoryCustomImpl implements TaskRepositoryCustom {
+
+    // Seekable columns with the SQL type the cursor value is cast to and whether the column is nullable
+    private static final Map<String, SeekColumn> SEEK_COLUMNS = Map.of(
+            "created_at", new SeekColumn("timestamp", false),
+            "updated_at", new SeekColumn("timestamp", false),
+            "due_date", new SeekColumn("timestamp", true),
+            "user_id", new SeekColumn("uuid", false),
+            "title", new SeekColumn("text", false),
+            "description", new SeekColumn("text", true),
+            "status", new SeekColumn("task_status", false),
+            "priority", new SeekColumn("text", true)
+    );
+
+    private static final Pattern PLAN_ROWS = Pattern.compile("rows=(\\d+)");
+
+    // Everything but search_vector, which exports don't need
+    private static final String EXPORT_COLUMNS =
+            "t.id, t.title, t.description, t.status, t.priority, t.due_date, t.created_at, t.updated_at, t.user_id, t.version";
+
+    // Rows the driver holds in memory at a time while streaming an export
+    private static final int EXPORT_FETCH_SIZE = 1000;
+
+    // Counters are locked in this order, so that concurrent writes of the same user can't deadlock on them
+    private static final Comparator<TaskCounterKey> COUNTER_ORDER = Comparator
+            .comparing(TaskCounterKey::status)
+            .thenComparing(key -> counterPriority(key.priority()));
+
+    // Recounts the tasks of a batch of users and adds the difference to their counters. Both sides are read from
+    // the same snapshot, so writes that commit meanwhile, which change a task and its counter together, are left
+    // alone instead of being overwritten with a stale count.
+    private static final String REPAIR_COUNTERS = """
+            WITH batch AS (
+                SELECT u.id FROM users u
+                WHERE CAST(:afterUserId AS uuid) IS NULL OR u.id > CAST(:afterUserId AS uuid)
+                ORDER BY u.id
+                LIMIT :batchSize
+            ), actual AS (
+                SELECT t.user_id, t.status, COALESCE(t.priority, '') AS priority, COUNT(*) AS task_count
+                FROM tasks t JOIN batch b ON b.id = t.user_id
+                GROUP BY t.user_id, t.status, COALESCE(t.priority, '')
+            ), counted AS (
+                SELECT c.user_id, c.status, c.priority, c.task_count
+                FROM task_counters c JOIN batch b ON b.id = c.user_id
+            ), drift AS (
+                SELECT COALESCE(a.user_id, c.user_id) AS user_id,
+                       COALESCE(a.status, c.status) AS status,
+                       COALESCE(a.priority, c.priority) AS priority,
+                       COALESCE(a.task_count, 0) - COALESCE(c.task_count, 0) AS delta
+                FROM actual a
+                FULL JOIN counted c ON c.user_id = a.user_id AND c.status = a.status AND c.priority = a.priority
+            ), repaired AS (
+                INSERT INTO task_counters (user_id, status, priority, task_count)
+                SELECT d.user_id, d.status, d.priority, d.delta FROM drift d
+                WHERE d.delta <> 0
+                ORDER BY d.user_id, d.status, d.priority
+                ON CONFLICT (user_id, status, priority)
+                    DO UPDATE SET task_count = task_counters.task_count + EXCLUDED.task_count
+                RETURNING 1
+            )
+            SELECT (SELECT b.id FROM batch b ORDER BY b.id DESC LIMIT 1), (SELECT COUNT(*) FROM repaired)
+            """;
+
+    // Takes the next number of the change sequence of the user of the one row of the given CTE, if there is one
+    private static final String TAKE_CHANGE_SEQ_FROM =
+            "INSERT INTO task_change_sequences (user_id, last_seq) SELECT m.user_id, 1 FROM %s m " +
+            "ON CONFLICT (user_id) DO UPDATE SET last_seq = task_change_sequences.last_seq + 1 RETURNING last_seq";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Override
+    public List<Task> findByUserIdAfterCursor(
+            UUID userId,
+            TaskFilter filter,
+            String sortColumn,
+            Sort.Direction direction,
+            TaskCursor after,
+            int limit) {
+        List<Task> tasks = new ArrayList<>();
+        for (NativeQuery segment : buildCursorQueries(userId, filter, sortColumn, direction, after)) {
+            tasks.addAll(execute(segment, limit - tasks.size()));
+            if (tasks.size() >= limit) {
+                break;
+            }
+        }
+        return tasks;
+    }
+
+    /**
+     * Builds the queries that together return the rows after the cursor, in order. Nullable sort keys follow
+     * Postgres' default null ordering (last when ascending, first when descending) and are read as two
+     * segments, null keys and non-null keys, so that each one is a plain range scan of the (user_id, column, id)
+     * index. Later segments only run when earlier ones could not fill the page.
+     */
+    List<NativeQuery> buildCursorQueries(
+            UUID userId,
+            TaskFilter filter,
+            String sortColumn,
+            Sort.Direction direction,
+            TaskCursor after) {
+        SeekColumn column = SEEK_COLUMNS.get(sortColumn);
+        if (column == null) {
+            throw new CustomException("Unsupported sort field for cursor pagination", HttpStatus.BAD_REQUEST);
+        }
+
+        String dir = direction.isAscending() ? "ASC" : "DESC";
+        String cmp = direction.isAscending() ? ">" : "<";
+        String col = "t." + sortColumn;
+        String keyOrder = " ORDER BY " + col + " " + dir + ", t.id " + dir;
+        String idOrder = " ORDER BY t.id " + dir;
+
+        if (!column.nullable()) {
+            NativeQuery query = baseQuery(userId, filter);
+            if (after != null) {
+                if (after.getValue() == null) {
+                    throw new CustomException("Invalid cursor", HttpStatus.BAD_REQUEST);
+                }
+                // Row comparison lets Postgres seek straight into the (user_id, column, id) index
+                query.sql.append(" AND (").append(col).append(", t.id) ").append(cmp)
+                         .append(" (CAST(:afterValue AS ").append(column.sqlType()).append("), CAST(:afterId AS uuid))");
+                query.params.put("afterValue", toParameter(column, after.getValue()));
+                query.params.put("afterId", after.getId());
+            }
+            query.sql.append(keyOrder);
+            return List.of(query);
+        }
+
+        NativeQuery nonNullKeys = baseQuery(userId, filter);
+        nonNullKeys.sql.append(" AND ").append(col).append(" IS NOT NULL");
+        NativeQuery nullKeys = baseQuery(userId, filter);
+        nullKeys.sql.append(" AND ").append(col).append(" IS NULL");
+
+        boolean afterInNullKeys = after != null && after.getValue() == null;
+        if (after != null && !afterInNullKeys) {
+            nonNullKeys.sql.append(" AND (").append(col).append(", t.id) ").append(cmp)
+                           .append(" (CAST(:afterValue AS ").append(column.sqlType()).append("), CAST(:afterId AS uuid))");
+            nonNullKeys.params.put("afterValue", toParameter(column, after.getValue()));
+            nonNullKeys.params.put("afterId", after.getId());
+        }
+        if (afterInNullKeys) {
+            nullKeys.sql.append(" AND t.id ").append(cmp).append(" CAST(:afterId AS uuid)");
+            nullKeys.params.put("afterId", after.getId());
+        }
+        nonNullKeys.sql.append(keyOrder);
+        nullKeys.sql.append(idOrder);
+
+        if (direction.isAscending()) {
+            // Null keys come last, so a cursor already among them has no non-null rows left to read
+            return afterInNullKeys ? List.of(nullKeys) : List.of(nonNullKeys, nullKeys);
+        }
+        // Null keys come first, so a cursor among the non-null keys has already passed all of them
+        return after != null && !afterInNullKeys ? List.of(nonNullKeys) : List.of(nullKeys, nonNullKeys);
+    }
+
+    /**
+     * Returns the planner's row estimate for the filtered task list instead of counting it. The estimate comes from
+     * table statistics, so it is cheap regardless of how many rows match, but it can be off in either direction.
+     */
+    @Override
+    public long estimateCountByUserId(UUID userId, TaskFilter filter) {
+        NativeQuery nativeQuery = baseQuery(userId, filter);
+        Query query = entityManager.createNativeQuery("EXPLAIN " + nativeQuery.sql);
+        nativeQuery.params.forEach(query::setParameter);
+        // The first line describes the top plan node, e.g. "Index Scan using ... (cost=0.43..8.45 rows=42 width=194)"
+        Matcher matcher = PLAN_ROWS.matcher(String.valueOf(query.getResultList().get(0)));
+        return matcher.find() ? Long.parseLong(matcher.group(1)) : 0;
+    }
+
+    /**
+     * Updates the non-null fields of {@code changes} in a single statement that only matches the task if it belongs
+     * to the user and, when given, still has the expected version. The same statement gives the task the next number
+     * of the user's change sequence and moves its count between the counters of its old and new status and priority,
+     * so the sequence row is only locked once the task was matched (and locked) itself. Empty when nothing matched.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public Optional<Task> updateByIdAndUserId(UUID taskId, UUID userId, UpdateTaskRequest changes, Long expectedVersion) {
+        NativeQuery nativeQuery = new NativeQuery();
+        StringBuilder sql = nativeQuery.sql;
+        Map<String, Object> params = nativeQuery.params;
+        List<String> assignments = new ArrayList<>();
+        if (changes.getTitle() != null) {
+            assignments.add("title = CAST(:title AS text)");
+            params.put("title", changes.getTitle());
+        }
+        if (changes.getDescription() != null) {
+            assignments.add("description = CAST(:description AS text)");
+            params.put("description", changes.getDescription());
+        }
+        if (changes.getStatus() != null) {
+            assignments.add("status = CAST(:status AS task_status)");
+            params.put("status", changes.getStatus().name());
+        }
+        if (changes.getPriority() != null) {
+            assignments.add("priority = CAST(:priority AS text)");
+            params.put("priority", changes.getPriority());
+        }
+        if (changes.getDueDate() != null) {
+            assignments.add("due_date = CAST(:dueDate AS timestamp)");
+            params.put("dueDate", changes.getDueDate());
+        }
+
+        String match = "t.id = CAST(:taskId AS uuid) AND t.user_id = CAST(:userId AS uuid)"
+                + (expectedVersion != null ? " AND t.version = CAST(:expectedVersion AS bigint)" : "");
+        params.put("taskId", taskId);
+        params.put("userId", userId);
+        if (expectedVersion != null) {
+            params.put("expectedVersion", expectedVersion);
+        }
+
+        if (assignments.isEmpty()) {
+            // Nothing to change, so don't bump updated_at or take a change number either
+            sql.append("SELECT * FROM tasks t WHERE ").append(match);
+        } else {
+            // Same clock as @UpdateTimestamp on the entity
+            assignments.add("updated_at = CAST(:updatedAt AS timestamp)");
+            assignments.add("version = t.version + 1");
+            assignments.add("change_seq = seq.last_seq");
+            params.put("updatedAt", Instant.now());
+            sql.append("WITH target AS (SELECT t.id, t.user_id, t.status, t.priority FROM tasks t WHERE ").append(match)
+               .append(" FOR UPDATE), ")
+               .append("seq AS (").append(TAKE_CHANGE_SEQ_FROM.formatted("target")).append("), ")
+               .append("updated AS (UPDATE tasks t SET ").append(String.join(", ", assignments))
+               .append(" FROM target old, seq WHERE t.id = old.id RETURNING t.*), ")
+               .append("""
+                       counted AS (
+                           INSERT INTO task_counters (user_id, status, priority, task_count)
+                           SELECT u.user_id, c.status, c.priority, c.delta
+                           FROM updated u
+                           JOIN target old ON old.id = u.id
+                           CROSS JOIN LATERAL (VALUES (old.status, COALESCE(old.priority, ''), -1),
+                                                      (u.status, COALESCE(u.priority, ''), 1)) AS c(status, priority, delta)
+                           WHERE old.status <> u.status OR COALESCE(old.priority, '') <> COALESCE(u.priority, '')
+                           ORDER BY c.status, c.priority
+                           ON CONFLICT (user_id, status, priority)
+                               DO UPDATE SET task_count = task_counters.task_count + EXCLUDED.task_count
+                       )
+                       SELECT * FROM updated""");
+        }
+
+        Query query = entityManager.createNativeQuery(nativeQuery.getSql(), Task.class);
+        params.forEach(query::setParameter);
+        List<Task> tasks = query.getResultList();
+        return tasks.stream().findFirst();
+    }
+
+    /**
+     * Streams the user's filtered tasks, oldest first, to {@code action} one row at a time. The rows are read through
+     * a forward-only cursor with a fixed fetch size and never become managed entities, so memory use doesn't grow with
+     * the number of tasks. Postgres only honours the fetch size inside a transaction, so callers must run in one.
+     */
+    @Override
+    public void forEachByUserId(UUID userId, TaskFilter filter, Consumer<Task> action) {
+        NativeQuery query = baseQuery(EXPORT_COLUMNS, userId, filter);
+        query.sql.append(" ORDER BY t.created_at, t.id");
+        Map<String, Object> params = new HashMap<>();
+        // Bind instants the way Hibernate does, as UTC timestamps
+        query.params.forEach((name, value) ->
+                params.put(name, value instanceof Instant instant ? instant.atOffset(ZoneOffset.UTC) : value));
+
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.setFetchSize(EXPORT_FETCH_SIZE);
+        new NamedParameterJdbcTemplate(jdbcTemplate).query(query.getSql(), params, (RowCallbackHandler) rs -> action.accept(mapExportRow(rs)));
+    }
+
+    /**
+     * Deletes the task only if it belongs to the user and, when given, still has the expected version. The same
+     * statement takes the number of the deletion from the user's change sequence, leaves a tombstone with it and
+     * takes the task off its counter, so nothing is locked beyond the task when it didn't match. False when
+     * nothing matched.
+     */
+    @Override
+    public boolean deleteByIdAndUserId(UUID taskId, UUID userId, Long expectedVersion) {
+        Query query = entityManager.createNativeQuery("""
+                WITH deleted AS (
+                    DELETE FROM tasks t WHERE t.id = CAST(:taskId AS uuid) AND t.user_id = CAST(:userId AS uuid)
+                    AND (CAST(:version AS bigint) IS NULL OR t.version = CAST(:version AS bigint))
+                    RETURNING t.id, t.user_id, t.status, t.priority
+                ), seq AS (
+                    %s
+                ), tombstone AS (
+                    INSERT INTO task_tombstones (task_id, user_id, change_seq, deleted_at)
+                    SELECT d.id, d.user_id, s.last_seq, CAST(:deletedAt AS timestamp) FROM deleted d, seq s
+                ), counted AS (
+                    INSERT INTO task_counters (user_id, status, priority, task_count)
+                    SELECT d.user_id, d.status, COALESCE(d.priority, ''), -1 FROM deleted d
+                    ON CONFLICT (user_id, status, priority)
+                        DO UPDATE SET task_count = task_counters.task_count + EXCLUDED.task_count
+                )
+                SELECT COUNT(*) FROM deleted
+                """.formatted(TAKE_CHANGE_SEQ_FROM.formatted("deleted")));
+        query.setParameter("taskId", taskId);
+        query.setParameter("userId", userId);
+        query.setParameter("version", expectedVersion);
+        query.setParameter("deletedAt", Instant.now());
+        return ((Number) query.getSingleResult()).longValue() > 0;
+    }
+
+    /**
+     * Adds {@code deltas} to the user's task counters in a single upsert, creating the counters that don't exist yet.
+     */
+    @Override
+    public void addToCounters(UUID userId, Map<TaskCounterKey, Long> deltas) {
+        List<TaskCounterKey> keys = deltas.entrySet().stream()
+                .filter(delta -> delta.getValue() != 0)
+                .map(Map.Entry::getKey)
+                .sorted(COUNTER_ORDER)
+                .toList();
+        if (keys.isEmpty()) {
+            return;
+        }
+
+        NativeQuery nativeQuery = new NativeQuery();
+        StringBuilder sql = nativeQuery.sql.append("INSERT INTO task_counters (user_id, status, priority, task_count) VALUES ");
+        nativeQuery.params.put("userId", userId);
+        for (int i = 0; i < keys.size(); i++) {
+            TaskCounterKey key = keys.get(i);
+            sql.append(i == 0 ? "" : ", ")
+               .append("(CAST(:userId AS uuid), CAST(:status").append(i).append(" AS task_status), CAST(:priority")
+               .append(i).append(" AS text), CAST(:delta").append(i).append(" AS bigint))");
+            nativeQuery.params.put("status" + i, key.status().name());
+            nativeQuery.params.put("priority" + i, counterPriority(key.priority()));
+            nativeQuery.params.put("delta" + i, deltas.get(key));
+        }
+        sql.append(" ON CONFLICT (user_id, status, priority) DO UPDATE SET task_count = task_counters.task_count + EXCLUDED.task_count");
+
+        Query query = entityManager.createNativeQuery(nativeQuery.getSql());
+        nativeQuery.params.forEach(query::setParameter);
+        query.executeUpdate();
+    }
+
+    /**
+     * Recounts the tasks of up to {@code batchSize} users after {@code afterUserId} (from the first user when null)
+     * and repairs the counters that drifted from them. Callers run each batch in a transaction of their own.
+     */
+    @Override
+    @Transactional
+    public CounterRepair repairCounters(UUID afterUserId, int batchSize) {
+        Query query = entityManager.createNativeQuery(REPAIR_COUNTERS);
+        query.setParameter("afterUserId", afterUserId);
+        query.setParameter("batchSize", batchSize);
+        Object[] row = (Object[]) query.getSingleResult();
+        return new CounterRepair((UUID) row[0], ((Number) row[1]).intValue());
+    }
+
+    /**
+     * Takes the next {@code count} numbers of the user's change sequence and returns the first. The user's sequence
+     * row stays locked until the transaction ends, so concurrent writers of the same user commit in the order of
+     * their numbers. Take them after locking the tasks being changed and before touching the counters, as every
+     * writer does, so they can't deadlock, and only once the write is known to go ahead.
+     */
+    @Override
+    public long takeChangeSeqs(UUID userId, int count) {
+        Query query = entityManager.createNativeQuery(
+                "INSERT INTO task_change_sequences (user_id, last_seq) VALUES (CAST(:userId AS uuid), CAST(:count AS bigint)) " +
+                "ON CONFLICT (user_id) DO UPDATE SET last_seq = task_change_sequences.last_seq + EXCLUDED.last_seq " +
+                "RETURNING last_seq");
+        // Only the sequence row is touched, so tasks changed in memory needn't be flushed first; they would be
+        // written twice (and their version bumped twice) once they get their numbers
+        query.setFlushMode(FlushModeType.COMMIT);
+        query.setParameter("userId", userId);
+        query.setParameter("count", count);
+        long lastSeq = ((Number) query.getSingleResult()).longValue();
+        return lastSeq - count + 1;
+    }
+
+    // Records the deletion of the user's tasks (by id) with the numbers of their deletions
+    @Override
+    public void addTombstones(UUID userId, Map<UUID, Long> changeSeqs) {
+        if (changeSeqs.isEmpty()) {
+            return;
+        }
+        UUID[] taskIds = new UUID[changeSeqs.size()];
+        Long[] seqs = new Long[changeSeqs.size()];
+        int i = 0;
+        for (Map.Entry<UUID, Long> tombstone : changeSeqs.entrySet()) {
+            taskIds[i] = tombstone.getKey();
+            seqs[i++] = tombstone.getValue();
+        }
+        Query query = entityManager.createNativeQuery(
+                "INSERT INTO task_tombstones (task_id, user_id, change_seq, deleted_at) " +
+                "SELECT d.task_id, CAST(:userId AS uuid), d.change_seq, CAST(:deletedAt AS timestamp) " +
+                "FROM unnest(CAST(:taskIds AS uuid[]), CAST(:seqs AS bigint[])) AS d(task_id, change_seq)");
+        query.setParameter("userId", userId);
+        query.setParameter("deletedAt", Instant.now());
+        query.setParameter("taskIds", taskIds);
+        query.setParameter("seqs", seqs);
+        query.executeUpdate();
+    }
+
+    /**
+     * Deletes up to {@code batchSize} tombstones of tasks deleted before {@code deletedBefore} and records per user
+     * how far they went, so that clients that still needed them are told to resync. Returns how many it deleted.
+     */
+    @Override
+    @Transactional
+    public int purgeTombstonesBatch(Instant deletedBefore, int batchSize) {
+        Query query = entityManager.createNativeQuery("""
+                WITH purged AS (
+                    DELETE FROM task_tombstones WHERE task_id IN (
+                        SELECT d.task_id FROM task_tombstones d WHERE d.deleted_at < CAST(:deletedBefore AS timestamp)
+                        ORDER BY d.deleted_at LIMIT :batchSize FOR UPDATE SKIP LOCKED)
+                    RETURNING user_id, change_seq
+                ), marked AS (
+                    UPDATE task_change_sequences s SET purged_through = GREATEST(s.purged_through, p.change_seq)
+                    FROM (SELECT user_id, MAX(change_seq) AS change_seq FROM purged GROUP BY user_id) p
+                    WHERE s.user_id = p.user_id
+                    RETURNING 1
+                )
+                SELECT COUNT(*) FROM purged
+                """);
+        query.setParameter("deletedBefore", deletedBefore);
+        query.setParameter("batchSize", batchSize);
+        return ((Number) query.getSingleResult()).intValue();
+    }
+
+    private static String counterPriority(String priority) {
+        return priority != null ? priority : "";
+    }
+
+    private Task mapExportRow(ResultSet rs) throws SQLException {
+        return Task.builder()
+                .id(rs.getObject("id", UUID.class))
+                .title(rs.getString("title"))
+                .description(rs.getString("description"))
+                .status(TaskStatus.valueOf(rs.getString("status")))
+                .priority(rs.getString("priority"))
+                .dueDate(toInstant(rs.getObject("due_date", OffsetDateTime.class)))
+                .createdAt(toInstant(rs.getObject("created_at", OffsetDateTime.class)))
+                .updatedAt(toInstant(rs.getObject("updated_at", OffsetDateTime.class)))
+                .userId(rs.getObject("user_id", UUID.class))
+                .version(rs.getLong("version"))
+                .build();
+    }
+
+    private Instant toInstant(OffsetDateTime value) {
+        return value != null ? value.toInstant() : null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Task> execute(NativeQuery nativeQuery, int limit) {
+        Query query = entityManager.createNativeQuery(nativeQuery.sql + " LIMIT :limit", Task.class);
+        nativeQuery.params.forEach(query::setParameter);
+        query.setParameter("limit", limit);
+        return query.getResultList();
+    }
+
+    private NativeQuery baseQuery(UUID userId, TaskFilter filter) {
+        return baseQuery("*", userId, filter);
+    }
+
+    private NativeQuery baseQuery(String columns, UUID userId, TaskFilter filter) {
+        NativeQuery query = new NativeQuery();
+        query.sql.append("SELECT ").append(columns).append(" FROM tasks t WHERE t.user_id = CAST(:userId AS uuid)");
+        query.params.put("userId", userId);
+        appendFilters(query, filter);
+        return query;
+    }
+
+    private void appendFilters(NativeQuery query, TaskFilter filter) {
+        if (filter == null) {
+            return;
+        }
+        StringBuilder sql = query.sql;
+        Map<String, Object> params = query.params;
+        if (filter.getStatus() != null) {
+            sql.append(" AND t.status = CAST(:status AS task_status)");
+            params.put("status", filter.getStatus().name());
+        }
+        if (filter.getPriority() != null) {
+            sql.append(" AND LOWER(t.priority) = LOWER(CAST(:priority AS text))");
+            params.put("priority", filter.getPriority());
+        }
+        if (filter.getSearch() != null) {
+            String tsQuery = filter.getSearchMode() != SearchMode.SUBSTRING
+                    ? SearchQueryUtil.toPrefixTsQuery(filter.getSearch())
+                    : null;
+            if (tsQuery != null) {
+                sql.append(" AND t.search_vector @@ to_tsquery('english', CAST(:query AS text))");
+                params.put("query", tsQuery);
+            } else {
+                sql.append(" AND (LOWER(t.title) LIKE LOWER(CONCAT('%', CAST(:search AS text), '%'))")
+                   .append(" OR LOWER(t.description) LIKE LOWER(CONCAT('%', CAST(:search AS text), '%')))");
+                params.put("search", filter.getSearch());
+            }
+        }
+        if (filter.getDueDateFrom() != null) {
+            sql.append(" AND t.due_date >= CAST(:dueDateFrom AS timestamp)");
+            params.put("dueDateFrom", filter.getDueDateFrom());
+        }
+        if (filter.getDueDateTo() != null) {
+            sql.append(" AND t.due_date <= CAST(:dueDateTo AS timestamp)");
+            params.put("dueDateTo", filter.getDueDateTo());
+        }
+    }
+
+    private Object toParameter(SeekColumn column, String value) {
+        if (!column.sqlType().equals("timestamp")) {
+            return value;
+        }
+        try {
+            return Instant.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new CustomException("Invalid cursor", HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    private record SeekColumn(String sqlType, boolean nullable) {
+    }
+
+    static class NativeQuery {
+        final StringBuilder sql = new StringBuilder();
+        final Map<String, Object> params = new HashMap<>();
+
+        String getSql() {
+            return sql.toString();
+        }
+
+        Map<String, Object> getParams() {
+            return params;
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.mini_task_tracker.repository;
+
+import com.example.mini_task_tracker.entity.TaskStatus;
+
+import java.time.Instant;
+import java.util.UUID;
+
+// Read-only view of a task without its description, for list reads that don't show it
+public interface TaskSummary {
+    UUID getId();
+
+    String getTitle();
+
+    TaskStatus getStatus();
+
+    String getPriority();
+
+    Instant getDueDate();
+
+    Instant getCreatedAt();
+
+    Instant getUpdatedAt();
+
+    UUID getUserId();
+}
@@ -0,0 +1,10 @@
+package com.example.mini_task_tracker.repository;
+
+import java.util.UUID;
+
+// A deleted task and the number of its deletion in its user's change sequence, read from task_tombstones
+public interface TaskTombstone {
+    UUID getTaskId();
+
+    long getChangeSeq();
+}
@@ -9,7 +9,5 @@ import java.util.UUID;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, UUID> {
-    boolean existsByEmail(String email);
-    boolean existsByUsername(String username);
     Optional<User> findByEmail(String email);
 }
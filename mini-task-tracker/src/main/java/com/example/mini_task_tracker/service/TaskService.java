@@ -1,13 +1,28 @@
 package com.example.mini_task_tracker.service;
 
+import com.example.mini_task_tracker.dto.BatchTaskRequest;
+import com.example.mini_task_tracker.dto.BatchTaskResponse;
 import com.example.mini_task_tracker.dto.CreateTaskRequest;
+import com.example.mini_task_tracker.dto.CursorPageResponse;
+import com.example.mini_task_tracker.dto.ExportFormat;
+import com.example.mini_task_tracker.dto.SearchMode;
+import com.example.mini_task_tracker.dto.SliceResponse;
+import com.example.mini_task_tracker.dto.TaskChangesResponse;
+import com.example.mini_task_tracker.dto.TaskFilter;
 import com.example.mini_task_tracker.dto.TaskResponse;
+import com.example.mini_task_tracker.dto.TaskStatsResponse;
+import com.example.mini_task_tracker.dto.TotalsMode;
 import com.example.mini_task_tracker.dto.UpdateTaskRequest;
 import com.example.mini_task_tracker.entity.TaskStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.Instant;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 public interface TaskService {
@@ -17,10 +32,45 @@ public interface TaskService {
         TaskStatus status, 
         String priority, 
         String search,
+        SearchMode searchMode,
         Instant dueDateFrom,
         Instant dueDateTo,
+        TotalsMode totals,
+        Pageable pageable,
+        String fingerprint
+    );
+    SliceResponse<TaskResponse> getTaskSliceByUserId(String userId, TaskFilter filter, Pageable pageable);
+    Page<Map<String, Object>> getTaskFieldsByUserId(
+        String userId,
+        TaskFilter filter,
+        String fields,
+        TotalsMode totals,
+        Pageable pageable,
+        String fingerprint
+    );
+    SliceResponse<Map<String, Object>> getTaskFieldsSliceByUserId(
+        String userId,
+        TaskFilter filter,
+        String fields,
         Pageable pageable
     );
-    TaskResponse updateTask(UUID taskId, UpdateTaskRequest request, String userId);
-    void deleteTask(UUID taskId, String userId);
+    CursorPageResponse<TaskResponse> getTasksByUserIdAfterCursor(
+        String userId,
+        TaskFilter filter,
+        String sortBy,
+        Sort.Direction direction,
+        String after,
+        int size
+    );
+    TaskResponse updateTask(UUID taskId, UpdateTaskRequest request, String userId, Long expectedVersion);
+    TaskResponse patchTask(UUID taskId, UpdateTaskRequest request, String userId, Long expectedVersion);
+    void deleteTask(UUID taskId, String userId, Long expectedVersion);
+    String getTaskListFingerprint(String userId);
+    BatchTaskResponse applyBatch(BatchTaskRequest request, String userId);
+    List<TaskResponse> getTasksByIds(List<UUID> ids, String userId);
+
+    TaskStatsResponse getTaskStats(String userId);
+
+    TaskChangesResponse getTaskChanges(String userId, String since, int size);
+    void exportTasks(String userId, TaskFilter filter, ExportFormat format, OutputStream out) throws IOException;
 }
@@ -12,6 +12,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
 
 @Service
@@ -26,21 +27,31 @@ public class RefreshTokenServiceImpl implements RefreshTokenService {
     @Override
     @Transactional
     public RefreshToken createRefreshToken(User user) {
-        deleteByUser(user);
-
+        LocalDateTime now = LocalDateTime.now();
         RefreshToken refreshToken = RefreshToken.builder()
+                .id(UUID.randomUUID())
                 .user(user)
                 .token(UUID.randomUUID().toString())
-                .expiryDate(LocalDateTime.now().plusNanos(refreshTokenExpiration * 1_000_000))
+                .expiryDate(now.plusNanos(refreshTokenExpiration * 1_000_000))
+                .createdAt(now)
                 .build();
 
-        return refreshTokenRepository.save(refreshToken);
+        // Replaces the user's previous token, if any, in one statement; concurrent logins of the same user
+        // serialize on that single row
+        refreshTokenRepository.upsertForUser(
+                refreshToken.getId(),
+                refreshToken.getToken(),
+                user.getId(),
+                refreshToken.getExpiryDate(),
+                refreshToken.getCreatedAt()
+        );
+        return refreshToken;
     }
 
     @Override
     public RefreshToken verifyExpiration(RefreshToken token) {
         if (token.getExpiryDate().isBefore(LocalDateTime.now())) {
-            refreshTokenRepository.delete(token);
+            refreshTokenRepository.deleteAllByIdInBatch(List.of(token.getId()));
             throw new CustomException("Refresh token expired. Please login again", HttpStatus.UNAUTHORIZED);
         }
         return token;
@@ -55,12 +66,13 @@ public class RefreshTokenServiceImpl implements RefreshTokenService {
     @Override
     @Transactional
     public void deleteByUser(User user) {
-        refreshTokenRepository.deleteByUser(user);
+        refreshTokenRepository.deleteByUserId(user.getId());
     }
 
     @Override
     @Transactional
     public void deleteRefreshToken(RefreshToken token) {
-        refreshTokenRepository.delete(token);
+        // Deletes by id without re-reading the (usually detached) token first
+        refreshTokenRepository.deleteAllByIdInBatch(List.of(token.getId()));
     }
 }
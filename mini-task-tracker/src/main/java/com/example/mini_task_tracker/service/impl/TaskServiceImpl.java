@@ -1,113 +1,867 @@
 package com.example.mini_task_tracker.service.impl;
 
+import com.example.mini_task_tracker.cache.TaskListCache;
+import com.example.mini_task_tracker.cache.TaskListChangedEvent;
+import com.example.mini_task_tracker.dto.BatchTaskOperation;
+import com.example.mini_task_tracker.dto.BatchTaskRequest;
+import com.example.mini_task_tracker.dto.BatchTaskResponse;
+import com.example.mini_task_tracker.dto.BatchTaskResult;
 import com.example.mini_task_tracker.dto.CreateTaskRequest;
+import com.example.mini_task_tracker.dto.CursorPageResponse;
+import com.example.mini_task_tracker.dto.ExportFormat;
+import com.example.mini_task_tracker.dto.SearchMode;
+import com.example.mini_task_tracker.dto.SliceResponse;
+import com.example.mini_task_tracker.dto.TaskChangesResponse;
+import com.example.mini_task_tracker.dto.TaskFilter;
 import com.example.mini_task_tracker.dto.TaskResponse;
+import com.example.mini_task_tracker.dto.TaskStatsResponse;
+import com.example.mini_task_tracker.dto.TotalsMode;
 import com.example.mini_task_tracker.dto.UpdateTaskRequest;
 import com.example.mini_task_tracker.entity.Task;
 import com.example.mini_task_tracker.entity.TaskStatus;
 import com.example.mini_task_tracker.exception.CustomException;
+import com.example.mini_task_tracker.repository.TaskCount;
+import com.example.mini_task_tracker.repository.TaskCounterKey;
+import com.example.mini_task_tracker.repository.TaskChangeSequence;
 import com.example.mini_task_tracker.repository.TaskRepository;
+import com.example.mini_task_tracker.repository.TaskSummary;
+import com.example.mini_task_tracker.repository.TaskTombstone;
 import com.example.mini_task_tracker.service.TaskService;
+import com.example.mini_task_tracker.util.ChangeCursor;
+import com.example.mini_task_tracker.util.SearchQueryUtil;
+import com.example.mini_task_tracker.util.TaskCursor;
+import com.example.mini_task_tracker.util.TaskExportWriter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.databind.json.JsonMapper;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.LongConsumer;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class TaskServiceImpl implements TaskService {
 
+    // Entity field names that can be sorted on, mapped to their database column names
+    private static final Map<String, String> SORT_COLUMNS = Map.of(
+            "createdAt", "created_at",
+            "updatedAt", "updated_at",
+            "dueDate", "due_date",
+            "userId", "user_id",
+            "title", "title",
+            "description", "description",
+            "status", "status",
+            "priority", "priority"
+    );
+
+    // Export output buffered before it is written to the response
+    private static final int EXPORT_BUFFER_SIZE = 64 * 1024;
+
+    // Fields a sparse task list can select, in response order
+    private static final List<String> TASK_FIELDS = List.of(
+            "id", "title", "description", "status", "priority", "dueDate", "createdAt", "updatedAt", "userId"
+    );
+
     private final TaskRepository taskRepository;
+    private final TaskListCache taskListCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PlatformTransactionManager transactionManager;
+    private final Validator validator;
+    private final JsonMapper jsonMapper;
+    private final MeterRegistry meterRegistry;
 
     @Override
     @Transactional
     public TaskResponse createTask(CreateTaskRequest request, String userId) {
         // Build task
-        Task task = Task.builder()
-                .title(request.getTitle())
-                .description(request.getDescription())
-                .status(request.getStatus() != null ? request.getStatus() : TaskStatus.TODO)
-                .priority(request.getPriority())
-                .dueDate(request.getDueDate())
-                .userId(UUID.fromString(userId))
-                .build();
+        UUID userUuid = UUID.fromString(userId);
+        Task task = buildTask(request, userUuid);
+        task.setChangeSeq(taskRepository.takeChangeSeqs(userUuid, 1));
 
         // Save task
         Task savedTask = taskRepository.save(task);
+        taskRepository.addToCounters(savedTask.getUserId(), Map.of(counterKey(savedTask), 1L));
+        eventPublisher.publishEvent(new TaskListChangedEvent(savedTask.getUserId()));
 
         // Return response
         return mapToTaskResponse(savedTask);
     }
 
+    // Not transactional, so that cache hits don't run a statement beyond the caller's fingerprint read; misses read
+    // in a transaction of their own. fingerprint is the one the caller read before, see TaskListCache
     @Override
-    @Transactional(readOnly = true)
     public Page<TaskResponse> getTasksByUserId(
             String userId,
             TaskStatus status,
             String priority,
             String search,
+            SearchMode searchMode,
             Instant dueDateFrom,
             Instant dueDateTo,
-            Pageable pageable) {
+            TotalsMode totals,
+            Pageable pageable,
+            String fingerprint) {
         UUID userUuid = UUID.fromString(userId);
-        
-        // If any filters are applied, use the filter query with mapped column names
-        if (status != null || priority != null || search != null || dueDateFrom != null || dueDateTo != null) {
-            String statusStr = status != null ? status.name() : null;
-            // Convert entity field names to database column names for native query
-            Pageable mappedPageable = mapToDbColumnNames(pageable);
-            Page<Task> tasks = taskRepository.findByUserIdWithFilters(
-                userUuid, statusStr, priority, search, dueDateFrom, dueDateTo, mappedPageable
-            );
-            return tasks.map(this::mapToTaskResponse);
+        TaskFilter filter = TaskFilter.builder()
+                .status(status)
+                .priority(priority)
+                .search(search)
+                .searchMode(searchMode)
+                .dueDateFrom(dueDateFrom)
+                .dueDateTo(dueDateTo)
+                .build();
+
+        return taskListCache.get(userUuid, fingerprint, new TaskListQuery(normalize(filter), pageable, totals, null),
+                () -> readOnly(() -> loadTasks(userUuid, filter, totals, pageable)));
+    }
+
+    @Override
+    public Page<Map<String, Object>> getTaskFieldsByUserId(
+            String userId,
+            TaskFilter filter,
+            String fields,
+            TotalsMode totals,
+            Pageable pageable,
+            String fingerprint) {
+        UUID userUuid = UUID.fromString(userId);
+        List<String> selectedFields = parseFields(fields);
+        return taskListCache.get(userUuid, fingerprint, new TaskListQuery(normalize(filter), pageable, totals, selectedFields),
+                () -> readOnly(() -> loadTaskFields(userUuid, filter, selectedFields, totals, pageable)));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public SliceResponse<Map<String, Object>> getTaskFieldsSliceByUserId(
+            String userId,
+            TaskFilter filter,
+            String fields,
+            Pageable pageable) {
+        List<String> selectedFields = parseFields(fields);
+        Slice<TaskResponse> tasks = findTaskResponses(UUID.fromString(userId), filter, selectedFields, pageable, false);
+        return SliceResponse.<Map<String, Object>>builder()
+                .content(tasks.map(task -> selectFields(task, selectedFields)).getContent())
+                .size(pageable.getPageSize())
+                .number(pageable.getPageNumber())
+                .hasNext(tasks.hasNext())
+                .build();
+    }
+
+    private Page<Map<String, Object>> loadTaskFields(
+            UUID userUuid, TaskFilter filter, List<String> fields, TotalsMode totals, Pageable pageable) {
+        if (totals == TotalsMode.ESTIMATE) {
+            Slice<TaskResponse> tasks = findTaskResponses(userUuid, filter, fields, pageable, false);
+            List<Map<String, Object>> content = tasks.map(task -> selectFields(task, fields)).getContent();
+            return new PageImpl<>(content, pageable, estimateTotal(userUuid, filter, tasks, pageable));
         }
-        
-        // Otherwise use the simple query
-        Page<Task> tasks = taskRepository.findByUserId(userUuid, pageable);
+        Page<TaskResponse> tasks = (Page<TaskResponse>) findTaskResponses(userUuid, filter, fields, pageable, true);
+        return tasks.map(task -> selectFields(task, fields));
+    }
+
+    // Only reads full entities when the description was asked for; everything else comes from the
+    // TaskSummary projection
+    private Slice<TaskResponse> findTaskResponses(
+            UUID userUuid, TaskFilter filter, List<String> fields, Pageable pageable, boolean countTotal) {
+        if (fields.contains("description")) {
+            return findTasks(userUuid, filter, pageable, countTotal).map(this::mapToTaskResponse);
+        }
+        return findTaskSummaries(userUuid, filter, pageable, countTotal).map(this::mapToTaskResponse);
+    }
+
+    // Requested fields in the order of TASK_FIELDS; the id is always included
+    private List<String> parseFields(String fields) {
+        Set<String> requested = new HashSet<>();
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            if (!TASK_FIELDS.contains(name)) {
+                throw new CustomException("Unsupported field: " + name, HttpStatus.BAD_REQUEST);
+            }
+            requested.add(name);
+        }
+        return TASK_FIELDS.stream()
+                .filter(name -> name.equals("id") || requested.contains(name))
+                .toList();
+    }
+
+    private Map<String, Object> selectFields(TaskResponse task, List<String> fields) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        for (String field : fields) {
+            values.put(field, switch (field) {
+                case "id" -> task.getId();
+                case "title" -> task.getTitle();
+                case "description" -> task.getDescription();
+                case "status" -> task.getStatus();
+                case "priority" -> task.getPriority();
+                case "dueDate" -> task.getDueDate();
+                case "createdAt" -> task.getCreatedAt();
+                case "updatedAt" -> task.getUpdatedAt();
+                case "userId" -> task.getUserId();
+                default -> throw new IllegalStateException("Unknown field: " + field);
+            });
+        }
+        return values;
+    }
+
+    // Read-only transactions also load entities read-only, so Hibernate keeps no dirty-checking snapshots of them
+    private <T> T readOnly(Supplier<T> reader) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        return transaction.execute(status -> reader.get());
+    }
+
+    private Page<TaskResponse> loadTasks(UUID userUuid, TaskFilter filter, TotalsMode totals, Pageable pageable) {
+        if (totals == TotalsMode.ESTIMATE) {
+            // Skip the count query and report the planner's estimate instead
+            Slice<Task> tasks = findTasks(userUuid, filter, pageable, false);
+            List<TaskResponse> content = tasks.map(this::mapToTaskResponse).getContent();
+            return new PageImpl<>(content, pageable, estimateTotal(userUuid, filter, tasks, pageable));
+        }
+
+        // Queries that count their total return a Page
+        Page<Task> tasks = (Page<Task>) findTasks(userUuid, filter, pageable, true);
         return tasks.map(this::mapToTaskResponse);
     }
 
-    private Pageable mapToDbColumnNames(Pageable pageable) {
+    // Filters that always match the same tasks share a cache entry: priority and search are compared
+    // case-insensitively, and the search mode only matters when there is a search
+    private TaskFilter normalize(TaskFilter filter) {
+        return TaskFilter.builder()
+                .status(filter.getStatus())
+                .priority(filter.getPriority() != null ? filter.getPriority().toLowerCase() : null)
+                .search(filter.getSearch() != null ? filter.getSearch().toLowerCase() : null)
+                .searchMode(filter.getSearch() != null ? filter.getSearchMode() : null)
+                .dueDateFrom(filter.getDueDateFrom())
+                .dueDateTo(filter.getDueDateTo())
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public SliceResponse<TaskResponse> getTaskSliceByUserId(String userId, TaskFilter filter, Pageable pageable) {
+        Slice<Task> tasks = findTasks(UUID.fromString(userId), filter, pageable, false);
+        return SliceResponse.<TaskResponse>builder()
+                .content(tasks.map(this::mapToTaskResponse).getContent())
+                .size(pageable.getPageSize())
+                .number(pageable.getPageNumber())
+                .hasNext(tasks.hasNext())
+                .build();
+    }
+
+    // Without countTotal the repository fetches one extra row to tell whether there is a next page
+    // instead of running the count query
+    private Slice<Task> findTasks(UUID userUuid, TaskFilter filter, Pageable pageable, boolean countTotal) {
+        // Without filters use the simple query
+        if (!filter.hasFilters()) {
+            return timedQuery("simple", "entity", countTotal, () -> countTotal
+                    ? taskRepository.findByUserId(userUuid, pageable)
+                    : taskRepository.findSliceByUserId(userUuid, pageable));
+        }
+
+        String statusStr = filter.getStatus() != null ? filter.getStatus().name() : null;
+        // Convert entity field names to database column names for native query
+        Pageable mappedPageable = mapToDbColumnNames(pageable);
+
+        // Search uses the full-text index unless substring matching was asked for
+        // or the text has no words to match on (e.g. only punctuation)
+        String tsQuery = filter.getSearchMode() != SearchMode.SUBSTRING
+                ? SearchQueryUtil.toPrefixTsQuery(filter.getSearch())
+                : null;
+        if (tsQuery != null) {
+            // Best matches first; the requested sort only breaks ties between equally ranked tasks
+            Pageable rankedPageable = PageRequest.of(
+                mappedPageable.getPageNumber(),
+                mappedPageable.getPageSize(),
+                Sort.by(Sort.Direction.DESC, "rank").and(mappedPageable.getSort())
+            );
+            return timedQuery("fulltext", "entity", countTotal, () -> countTotal
+                    ? taskRepository.findByUserIdWithFullTextSearch(
+                        userUuid, statusStr, filter.getPriority(), tsQuery, filter.getDueDateFrom(), filter.getDueDateTo(), rankedPageable)
+                    : taskRepository.findSliceByUserIdWithFullTextSearch(
+                        userUuid, statusStr, filter.getPriority(), tsQuery, filter.getDueDateFrom(), filter.getDueDateTo(), rankedPageable));
+        }
+
+        return timedQuery("filtered", "entity", countTotal, () -> countTotal
+                ? taskRepository.findByUserIdWithFilters(
+                    userUuid, statusStr, filter.getPriority(), filter.getSearch(), filter.getDueDateFrom(), filter.getDueDateTo(), mappedPageable)
+                : taskRepository.findSliceByUserIdWithFilters(
+                    userUuid, statusStr, filter.getPriority(), filter.getSearch(), filter.getDueDateFrom(), filter.getDueDateTo(), mappedPageable));
+    }
+
+    // Same as findTasks, reading TaskSummary projections instead of entities
+    private Slice<TaskSummary> findTaskSummaries(UUID userUuid, TaskFilter filter, Pageable pageable, boolean countTotal) {
+        if (!filter.hasFilters()) {
+            return timedQuery("simple", "summary", countTotal, () -> countTotal
+                    ? taskRepository.findSummaryByUserId(userUuid, pageable)
+                    : taskRepository.findSummarySliceByUserId(userUuid, pageable));
+        }
+
+        String statusStr = filter.getStatus() != null ? filter.getStatus().name() : null;
+        Pageable mappedPageable = mapToDbColumnNames(pageable);
+        String tsQuery = filter.getSearchMode() != SearchMode.SUBSTRING
+                ? SearchQueryUtil.toPrefixTsQuery(filter.getSearch())
+                : null;
+        if (tsQuery != null) {
+            Pageable rankedPageable = PageRequest.of(
+                mappedPageable.getPageNumber(),
+                mappedPageable.getPageSize(),
+                Sort.by(Sort.Direction.DESC, "rank").and(mappedPageable.getSort())
+            );
+            return timedQuery("fulltext", "summary", countTotal, () -> countTotal
+                    ? taskRepository.findSummaryByUserIdWithFullTextSearch(
+                        userUuid, statusStr, filter.getPriority(), tsQuery, filter.getDueDateFrom(), filter.getDueDateTo(), rankedPageable)
+                    : taskRepository.findSummarySliceByUserIdWithFullTextSearch(
+                        userUuid, statusStr, filter.getPriority(), tsQuery, filter.getDueDateFrom(), filter.getDueDateTo(), rankedPageable));
+        }
+
+        return timedQuery("filtered", "summary", countTotal, () -> countTotal
+                ? taskRepository.findSummaryByUserIdWithFilters(
+                    userUuid, statusStr, filter.getPriority(), filter.getSearch(), filter.getDueDateFrom(), filter.getDueDateTo(), mappedPageable)
+                : taskRepository.findSummarySliceByUserIdWithFilters(
+                    userUuid, statusStr, filter.getPriority(), filter.getSearch(), filter.getDueDateFrom(), filter.getDueDateTo(), mappedPageable));
+    }
+
+    // Times a task list query, tagged with the branch that ran it (simple: no filters, filtered, fulltext or cursor),
+    // what it reads and whether it counted the total
+    private <T> T timedQuery(String branch, String projection, boolean countTotal, Supplier<T> query) {
+        return meterRegistry.timer("tasks.query",
+                "branch", branch,
+                "projection", projection,
+                "totals", countTotal ? "exact" : "none"
+        ).record(query);
+    }
+
+    // The last page gives the exact total for free. Before that, use the planner's estimate, but never report
+    // fewer tasks than the pages up to here plus the next one are known to hold.
+    private long estimateTotal(UUID userUuid, TaskFilter filter, Slice<?> tasks, Pageable pageable) {
+        long seen = pageable.getOffset() + tasks.getNumberOfElements();
+        if (!tasks.hasNext() && (tasks.hasContent() || pageable.getOffset() == 0)) {
+            return seen;
+        }
+        long estimate = meterRegistry.timer("tasks.query", "branch", "estimate", "projection", "none", "totals", "estimate")
+                .record(() -> taskRepository.estimateCountByUserId(userUuid, filter));
+        return tasks.hasNext() ? Math.max(estimate, seen + 1) : estimate;
+    }
+
+    // Package-private for the benchmarks, as is mapToTaskResponse(Task)
+    Pageable mapToDbColumnNames(Pageable pageable) {
         Sort sort = pageable.getSort();
         Sort mappedSort = Sort.unsorted();
         
         for (Sort.Order order : sort) {
             String property = order.getProperty();
-            String dbColumn = switch (property) {
-                case "createdAt" -> "created_at";
-                case "updatedAt" -> "updated_at";
-                case "dueDate" -> "due_date";
-                case "userId" -> "user_id";
-                default -> property; // title, description, status, priority stay the same
-            };
+            String dbColumn = SORT_COLUMNS.getOrDefault(property, property);
             mappedSort = mappedSort.and(Sort.by(order.getDirection(), dbColumn));
         }
         
         return PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), mappedSort);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageResponse<TaskResponse> getTasksByUserIdAfterCursor(
+            String userId,
+            TaskFilter filter,
+            String sortBy,
+            Sort.Direction direction,
+            String after,
+            int size) {
+        if (size < 1 || size > CursorPageResponse.MAX_SIZE) {
+            throw new CustomException("size must be between 1 and " + CursorPageResponse.MAX_SIZE, HttpStatus.BAD_REQUEST);
+        }
+        String sortColumn = SORT_COLUMNS.get(sortBy);
+        if (sortColumn == null) {
+            throw new CustomException("Unsupported sort field: " + sortBy, HttpStatus.BAD_REQUEST);
+        }
+
+        // A cursor is only meaningful for the sort it was issued with
+        TaskCursor cursor = after != null ? TaskCursor.decode(after) : null;
+        if (cursor != null && (!cursor.getSortBy().equals(sortBy) || cursor.getDirection() != direction)) {
+            throw new CustomException("Cursor does not match the requested sort", HttpStatus.BAD_REQUEST);
+        }
+
+        // Fetch one extra row to learn whether another page exists
+        List<Task> tasks = timedQuery("cursor", "entity", false, () -> taskRepository.findByUserIdAfterCursor(
+            UUID.fromString(userId), filter, sortColumn, direction, cursor, size + 1
+        ));
+        boolean hasNext = tasks.size() > size;
+        List<Task> page = hasNext ? tasks.subList(0, size) : tasks;
+
+        String nextCursor = null;
+        if (hasNext) {
+            Task last = page.get(page.size() - 1);
+            nextCursor = new TaskCursor(sortBy, direction, last.getId(), sortValue(last, sortBy)).encode();
+        }
+
+        return CursorPageResponse.<TaskResponse>builder()
+                .content(page.stream().map(this::mapToTaskResponse).toList())
+                .size(size)
+                .hasNext(hasNext)
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    private String sortValue(Task task, String sortBy) {
+        Object value = switch (sortBy) {
+            case "createdAt" -> task.getCreatedAt();
+            case "updatedAt" -> task.getUpdatedAt();
+            case "dueDate" -> task.getDueDate();
+            case "userId" -> task.getUserId();
+            case "title" -> task.getTitle();
+            case "description" -> task.getDescription();
+            case "status" -> task.getStatus() != null ? task.getStatus().name() : null;
+            case "priority" -> task.getPriority();
+            default -> throw new CustomException("Unsupported sort field: " + sortBy, HttpStatus.BAD_REQUEST);
+        };
+        return value != null ? value.toString() : null;
+    }
+
     @Override
     @Transactional
-    public TaskResponse updateTask(UUID taskId, UpdateTaskRequest request, String userId) {
+    public TaskResponse updateTask(UUID taskId, UpdateTaskRequest request, String userId, Long expectedVersion) {
         UUID userUuid = UUID.fromString(userId);
         
-        // Find the task
-        Task task = taskRepository.findById(taskId)
+        // Find and lock the task, before the change number below
+        Task task = taskRepository.findByIdForUpdate(taskId)
                 .orElseThrow(() -> new CustomException("Task not found", HttpStatus.NOT_FOUND));
         
         // Verify the task belongs to the user
         if (!task.getUserId().equals(userUuid)) {
             throw new CustomException("You don't have permission to edit this task", HttpStatus.FORBIDDEN);
         }
+
+        // Verify the client saw the current version; the lock keeps it current until the update
+        checkVersion(task, expectedVersion);
         
-        // Update fields if provided
+        // Update fields if provided; the change number is only taken once the task is known to be writable
+        TaskCounterKey oldKey = counterKey(task);
+        task.setChangeSeq(taskRepository.takeChangeSeqs(userUuid, 1));
+        applyUpdate(task, request);
+        
+        // Flush so the response (and its ETag) carries the bumped version
+        Task updatedTask = taskRepository.saveAndFlush(task);
+        Map<TaskCounterKey, Long> deltas = new HashMap<>();
+        moveCount(deltas, oldKey, counterKey(updatedTask));
+        taskRepository.addToCounters(userUuid, deltas);
+        eventPublisher.publishEvent(new TaskListChangedEvent(userUuid));
+        return mapToTaskResponse(updatedTask);
+    }
+
+    @Override
+    @Transactional
+    public void deleteTask(UUID taskId, String userId, Long expectedVersion) {
+        UUID userUuid = UUID.fromString(userId);
+
+        // Delete only if the task belongs to the user (and has the expected version), together with its change
+        // number, tombstone and counter, in one statement
+        if (!taskRepository.deleteByIdAndUserId(taskId, userUuid, expectedVersion)) {
+            throw failedWrite(taskId, userUuid, "delete");
+        }
+        eventPublisher.publishEvent(new TaskListChangedEvent(userUuid));
+    }
+
+    @Override
+    @Transactional
+    public TaskResponse patchTask(UUID taskId, UpdateTaskRequest request, String userId, Long expectedVersion) {
+        UUID userUuid = UUID.fromString(userId);
+
+        // Conditional UPDATE ... RETURNING: checks ownership and version, writes the given fields, the change number
+        // and the counters, and reads the result back at once
+        Task task = taskRepository.updateByIdAndUserId(taskId, userUuid, request, expectedVersion)
+                .orElseThrow(() -> failedWrite(taskId, userUuid, "edit"));
+        eventPublisher.publishEvent(new TaskListChangedEvent(userUuid));
+        return mapToTaskResponse(task);
+    }
+
+    // Only reached when a conditional write matched nothing, so the success path never pays for this read
+    private CustomException failedWrite(UUID taskId, UUID userUuid, String action) {
+        UUID ownerId = taskRepository.findUserIdById(taskId).orElse(null);
+        if (ownerId == null) {
+            return new CustomException("Task not found", HttpStatus.NOT_FOUND);
+        }
+        if (!ownerId.equals(userUuid)) {
+            return new CustomException("You don't have permission to " + action + " this task", HttpStatus.FORBIDDEN);
+        }
+        return new CustomException("Task has been modified", HttpStatus.PRECONDITION_FAILED);
+    }
+
+    private void checkVersion(Task task, Long expectedVersion) {
+        if (expectedVersion != null && !expectedVersion.equals(task.getVersion())) {
+            throw new CustomException("Task has been modified", HttpStatus.PRECONDITION_FAILED);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public String getTaskListFingerprint(String userId) {
+        return taskRepository.findFingerprintByUserId(UUID.fromString(userId));
+    }
+
+    @Override
+    @Transactional
+    public BatchTaskResponse applyBatch(BatchTaskRequest request, String userId) {
+        UUID userUuid = UUID.fromString(userId);
+        List<BatchTaskOperation> operations = request.getOperations();
+
+        // Load every task the batch refers to with a single query
+        Set<UUID> ids = new HashSet<>();
+        for (BatchTaskOperation operation : operations) {
+            if (operation.getId() != null) {
+                ids.add(operation.getId());
+            }
+        }
+        // Locked, so that the change numbers below are taken after the tasks like in every other write
+        Map<UUID, Task> tasks = new HashMap<>();
+        taskRepository.findAllByIdForUpdate(ids).forEach(task -> tasks.put(task.getId(), task));
+
+        // Operations run in request order against the loaded tasks; nothing is written until the flush below
+        List<BatchTaskResult> results = new ArrayList<>();
+        Map<BatchTaskResult, Task> written = new LinkedHashMap<>();
+        List<Task> created = new ArrayList<>();
+        List<Task> deleted = new ArrayList<>();
+        Map<TaskCounterKey, Long> counterDeltas = new HashMap<>();
+        Map<UUID, Long> tombstones = new HashMap<>();
+        // Successful operations get their change numbers in request order once all of them ran
+        List<LongConsumer> changeSeqAssignments = new ArrayList<>();
+        for (int i = 0; i < operations.size(); i++) {
+            BatchTaskOperation operation = operations.get(i);
+            BatchTaskResult result = BatchTaskResult.builder()
+                    .index(i)
+                    .type(operation.getType())
+                    .id(operation.getId())
+                    .build();
+            results.add(result);
+            try {
+                switch (operation.getType()) {
+                    case CREATE -> {
+                        CreateTaskRequest create = toCreateRequest(operation);
+                        validate(create);
+                        Task task = buildTask(create, userUuid);
+                        changeSeqAssignments.add(task::setChangeSeq);
+                        created.add(task);
+                        counterDeltas.merge(counterKey(task), 1L, Long::sum);
+                        written.put(result, task);
+                        result.setStatus(HttpStatus.CREATED.value());
+                    }
+                    case UPDATE -> {
+                        UpdateTaskRequest update = toUpdateRequest(operation);
+                        validate(update);
+                        Task task = ownedTask(tasks, operation.getId(), userUuid, "edit");
+                        checkVersion(task, operation.getVersion());
+                        TaskCounterKey oldKey = counterKey(task);
+                        applyUpdate(task, update);
+                        changeSeqAssignments.add(task::setChangeSeq);
+                        moveCount(counterDeltas, oldKey, counterKey(task));
+                        written.put(result, task);
+                        result.setStatus(HttpStatus.OK.value());
+                    }
+                    case DELETE -> {
+                        Task task = ownedTask(tasks, operation.getId(), userUuid, "delete");
+                        checkVersion(task, operation.getVersion());
+                        // Later operations on the same id see it as gone
+                        tasks.remove(task.getId());
+                        deleted.add(task);
+                        counterDeltas.merge(counterKey(task), -1L, Long::sum);
+                        changeSeqAssignments.add(changeSeq -> tombstones.put(task.getId(), changeSeq));
+                        result.setStatus(HttpStatus.NO_CONTENT.value());
+                    }
+                }
+            } catch (CustomException e) {
+                result.setStatus(e.getStatus().value());
+                result.setError(e.getMessage());
+            }
+        }
+
+        // Only when something is written, so that a batch of failures leaves the user's sequence unlocked
+        if (!changeSeqAssignments.isEmpty()) {
+            long nextChangeSeq = taskRepository.takeChangeSeqs(userUuid, changeSeqAssignments.size());
+            for (int i = 0; i < changeSeqAssignments.size(); i++) {
+                changeSeqAssignments.get(i).accept(nextChangeSeq + i);
+            }
+        }
+
+        // One flush for the whole batch; with hibernate.jdbc.batch_size and ordered inserts/updates
+        // the statements go out as JDBC batches
+        taskRepository.saveAll(created);
+        taskRepository.deleteAll(deleted);
+        taskRepository.flush();
+        // The counter changes of all operations together, in one statement
+        taskRepository.addToCounters(userUuid, counterDeltas);
+        taskRepository.addTombstones(userUuid, tombstones);
+
+        written.forEach((result, task) -> {
+            result.setId(task.getId());
+            result.setTask(mapToTaskResponse(task));
+        });
+        int failed = (int) results.stream().filter(result -> result.getError() != null).count();
+        if (failed < results.size()) {
+            eventPublisher.publishEvent(new TaskListChangedEvent(userUuid));
+        }
+
+        return BatchTaskResponse.builder()
+                .results(results)
+                .succeeded(results.size() - failed)
+                .failed(failed)
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public TaskStatsResponse getTaskStats(String userId) {
+        UUID userUuid = UUID.fromString(userId);
+        Map<TaskStatus, Long> byStatus = new EnumMap<>(TaskStatus.class);
+        for (TaskStatus status : TaskStatus.values()) {
+            byStatus.put(status, 0L);
+        }
+        Map<String, Long> byPriority = new HashMap<>();
+        long total = 0;
+        long withoutPriority = 0;
+
+        // A handful of counter rows instead of a scan over the user's tasks
+        for (TaskCount count : taskRepository.findCountsByUserId(userUuid)) {
+            byStatus.merge(count.getStatus(), count.getTaskCount(), Long::sum);
+            if (count.getPriority().isEmpty()) {
+                withoutPriority += count.getTaskCount();
+            } else {
+                byPriority.merge(count.getPriority(), count.getTaskCount(), Long::sum);
+            }
+            total += count.getTaskCount();
+        }
+
+        return TaskStatsResponse.builder()
+                .total(total)
+                .byStatus(byStatus)
+                .byPriority(byPriority)
+                .withoutPriority(withoutPriority)
+                .overdue(taskRepository.countOverdueByUserId(userUuid, Instant.now()))
+                .build();
+    }
+
+    // Repeatable read, so that the sequence, the tasks and the tombstones all come from one snapshot even while
+    // writes and tombstone purges commit in between
+    @Override
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public TaskChangesResponse getTaskChanges(String userId, String since, int size) {
+        if (size < 1 || size > TaskChangesResponse.MAX_SIZE) {
+            throw new CustomException("size must be between 1 and " + TaskChangesResponse.MAX_SIZE, HttpStatus.BAD_REQUEST);
+        }
+        UUID userUuid = UUID.fromString(userId);
+        TaskChangeSequence sequence = taskRepository.findChangeSequenceByUserId(userUuid).orElse(null);
+        long lastSeq = sequence != null ? sequence.getLastSeq() : 0;
+        long purgedThrough = sequence != null ? sequence.getPurgedThrough() : 0;
+
+        // Without a cursor this is a full sync. The client has no tasks yet, so it needs no tombstones of deletions
+        // up to here; later pages of the sync carry that along.
+        ChangeCursor cursor = since != null ? ChangeCursor.decode(since) : new ChangeCursor(0, lastSeq);
+
+        // A replica that lags behind the primary, or behind the replica that issued the cursor, hasn't seen the
+        // changes up to the cursor yet; there is nothing newer to send, but the cursor is still good
+        if (cursor.getSeq() > lastSeq) {
+            return TaskChangesResponse.builder()
+                    .upserted(List.of())
+                    .deleted(List.of())
+                    .cursor(since)
+                    .hasMore(false)
+                    .resyncRequired(false)
+                    .build();
+        }
+
+        // Tombstones the client still needs may already be purged
+        if (cursor.getTombstonesAfter() < purgedThrough) {
+            return TaskChangesResponse.builder()
+                    .upserted(List.of())
+                    .deleted(List.of())
+                    .hasMore(false)
+                    .resyncRequired(true)
+                    .build();
+        }
+
+        // Both lists are read one past the page, then merged in sequence order
+        long tombstonesAfter = Math.max(cursor.getSeq(), cursor.getTombstonesAfter());
+        List<Task> tasks = cursor.getSeq() < lastSeq
+                ? taskRepository.findChangedAfter(userUuid, cursor.getSeq(), size + 1)
+                : List.of();
+        List<TaskTombstone> tombstones = tombstonesAfter < lastSeq
+                ? taskRepository.findTombstonesAfter(userUuid, tombstonesAfter, size + 1)
+                : List.of();
+
+        List<TaskResponse> upserted = new ArrayList<>();
+        List<UUID> deleted = new ArrayList<>();
+        long seq = cursor.getSeq();
+        int t = 0;
+        int d = 0;
+        while (upserted.size() + deleted.size() < size && (t < tasks.size() || d < tombstones.size())) {
+            if (d == tombstones.size()
+                    || (t < tasks.size() && tasks.get(t).getChangeSeq() < tombstones.get(d).getChangeSeq())) {
+                Task task = tasks.get(t++);
+                upserted.add(mapToTaskResponse(task));
+                seq = task.getChangeSeq();
+            } else {
+                TaskTombstone tombstone = tombstones.get(d++);
+                deleted.add(tombstone.getTaskId());
+                seq = tombstone.getChangeSeq();
+            }
+        }
+        boolean hasMore = t < tasks.size() || d < tombstones.size();
+
+        // Once caught up, the cursor moves to the end of the sequence, past unused numbers and skipped tombstones
+        ChangeCursor next = hasMore
+                ? new ChangeCursor(seq, Math.max(seq, cursor.getTombstonesAfter()))
+                : new ChangeCursor(lastSeq, lastSeq);
+        return TaskChangesResponse.builder()
+                .upserted(upserted)
+                .deleted(deleted)
+                .cursor(next.encode())
+                .hasMore(hasMore)
+                .resyncRequired(false)
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<TaskResponse> getTasksByIds(List<UUID> ids, String userId) {
+        if (ids.size() > BatchTaskRequest.MAX_OPERATIONS) {
+            throw new CustomException("At most " + BatchTaskRequest.MAX_OPERATIONS + " ids can be fetched at once", HttpStatus.BAD_REQUEST);
+        }
+        Map<UUID, Task> tasks = new HashMap<>();
+        taskRepository.findAllByIdsAndUserId(ids.toArray(UUID[]::new), UUID.fromString(userId))
+                .forEach(task -> tasks.put(task.getId(), task));
+
+        // In request order; ids that don't exist or belong to someone else are left out
+        return ids.stream()
+                .distinct()
+                .map(tasks::get)
+                .filter(Objects::nonNull)
+                .map(this::mapToTaskResponse)
+                .toList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportTasks(String userId, TaskFilter filter, ExportFormat format, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), EXPORT_BUFFER_SIZE);
+        TaskExportWriter exportWriter = TaskExportWriter.of(format, writer, jsonMapper);
+        exportWriter.writeHeader();
+        try {
+            // Each row goes out as soon as it is read; the buffer is flushed to the client whenever it fills up
+            taskRepository.forEachByUserId(UUID.fromString(userId), filter, task -> {
+                try {
+                    exportWriter.write(mapToTaskResponse(task));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+    }
+
+    private Task ownedTask(Map<UUID, Task> tasks, UUID taskId, UUID userUuid, String action) {
+        if (taskId == null) {
+            throw new CustomException("Task id is required", HttpStatus.BAD_REQUEST);
+        }
+        Task task = tasks.get(taskId);
+        if (task == null) {
+            throw new CustomException("Task not found", HttpStatus.NOT_FOUND);
+        }
+        if (!task.getUserId().equals(userUuid)) {
+            throw new CustomException("You don't have permission to " + action + " this task", HttpStatus.FORBIDDEN);
+        }
+        return task;
+    }
+
+    private CreateTaskRequest toCreateRequest(BatchTaskOperation operation) {
+        return CreateTaskRequest.builder()
+                .title(operation.getTitle())
+                .description(operation.getDescription())
+                .status(operation.getStatus())
+                .priority(operation.getPriority())
+                .dueDate(operation.getDueDate())
+                .build();
+    }
+
+    private UpdateTaskRequest toUpdateRequest(BatchTaskOperation operation) {
+        return UpdateTaskRequest.builder()
+                .title(operation.getTitle())
+                .description(operation.getDescription())
+                .status(operation.getStatus())
+                .priority(operation.getPriority())
+                .dueDate(operation.getDueDate())
+                .build();
+    }
+
+    // Same constraints as the single-task endpoints, reported per operation instead of failing the whole batch
+    private void validate(Object request) {
+        Set<ConstraintViolation<Object>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            String message = violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+            throw new CustomException(message, HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    private Task buildTask(CreateTaskRequest request, UUID userUuid) {
+        return Task.builder()
+                .title(request.getTitle())
+                .description(request.getDescription())
+                .status(request.getStatus() != null ? request.getStatus() : TaskStatus.TODO)
+                .priority(request.getPriority())
+                .dueDate(request.getDueDate())
+                .userId(userUuid)
+                .build();
+    }
+
+    private TaskCounterKey counterKey(Task task) {
+        return new TaskCounterKey(task.getStatus(), task.getPriority());
+    }
+
+    // Moves one task from its old counter to its new one; nothing to do when neither status nor priority changed
+    private void moveCount(Map<TaskCounterKey, Long> deltas, TaskCounterKey oldKey, TaskCounterKey newKey) {
+        if (!oldKey.equals(newKey)) {
+            deltas.merge(oldKey, -1L, Long::sum);
+            deltas.merge(newKey, 1L, Long::sum);
+        }
+    }
+
+    private void applyUpdate(Task task, UpdateTaskRequest request) {
         if (request.getTitle() != null) {
             task.setTitle(request.getTitle());
         }
@@ -123,31 +877,22 @@ public class TaskServiceImpl implements TaskService {
         if (request.getDueDate() != null) {
             task.setDueDate(request.getDueDate());
         }
-        
-        // Save updated task
-        Task updatedTask = taskRepository.save(task);
-        return mapToTaskResponse(updatedTask);
     }
 
-    @Override
-    @Transactional
-    public void deleteTask(UUID taskId, String userId) {
-        UUID userUuid = UUID.fromString(userId);
-        
-        // Find the task
-        Task task = taskRepository.findById(taskId)
-                .orElseThrow(() -> new CustomException("Task not found", HttpStatus.NOT_FOUND));
-        
-        // Verify the task belongs to the user
-        if (!task.getUserId().equals(userUuid)) {
-            throw new CustomException("You don't have permission to delete this task", HttpStatus.FORBIDDEN);
-        }
-        
-        // Delete the task
-        taskRepository.delete(task);
+    private TaskResponse mapToTaskResponse(TaskSummary task) {
+        return TaskResponse.builder()
+                .id(task.getId())
+                .title(task.getTitle())
+                .status(task.getStatus())
+                .priority(task.getPriority())
+                .dueDate(task.getDueDate())
+                .createdAt(task.getCreatedAt())
+                .updatedAt(task.getUpdatedAt())
+                .userId(task.getUserId())
+                .build();
     }
 
-    private TaskResponse mapToTaskResponse(Task task) {
+    TaskResponse mapToTaskResponse(Task task) {
         return TaskResponse.builder()
                 .id(task.getId())
                 .title(task.getTitle())
@@ -158,6 +903,11 @@ public class TaskServiceImpl implements TaskService {
                 .createdAt(task.getCreatedAt())
                 .updatedAt(task.getUpdatedAt())
                 .userId(task.getUserId())
+                .version(task.getVersion())
                 .build();
     }
+
+    // fields is null for full TaskResponse pages
+    private record TaskListQuery(TaskFilter filter, Pageable pageable, TotalsMode totals, List<String> fields) {
+    }
 }
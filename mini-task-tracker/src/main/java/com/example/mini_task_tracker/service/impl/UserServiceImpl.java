@@ -1,5 +1,8 @@
 package com.example.mini_task_tracker.service.impl;
 
+import com.example.mini_task_tracker.cache.CachedUser;
+import com.example.mini_task_tracker.cache.RevokedTokenCache;
+import com.example.mini_task_tracker.cache.UserCache;
 import com.example.mini_task_tracker.dto.LoginRequest;
 import com.example.mini_task_tracker.dto.LoginResponse;
 import com.example.mini_task_tracker.dto.RefreshTokenResponse;
@@ -11,8 +14,12 @@ import com.example.mini_task_tracker.exception.CustomException;
 import com.example.mini_task_tracker.repository.UserRepository;
 import com.example.mini_task_tracker.service.RefreshTokenService;
 import com.example.mini_task_tracker.service.UserService;
+import com.example.mini_task_tracker.util.JwtClaims;
 import com.example.mini_task_tracker.util.JwtUtil;
+import io.jsonwebtoken.JwtException;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -27,18 +34,12 @@ public class UserServiceImpl implements UserService {
     private final PasswordEncoder passwordEncoder;
     private final JwtUtil jwtUtil;
     private final RefreshTokenService refreshTokenService;
+    private final UserCache userCache;
+    private final RevokedTokenCache revokedTokenCache;
 
+    // Not transactional: the password is hashed before, and without holding, a connection
     @Override
-    @Transactional
     public UserResponse register(RegisterRequest request) {
-        if (userRepository.existsByEmail(request.getEmail())) {
-            throw new CustomException("Email already exists", HttpStatus.CONFLICT);
-        }
-
-        if (userRepository.existsByUsername(request.getUsername())) {
-            throw new CustomException("Username already exists", HttpStatus.CONFLICT);
-        }
-
         User user = User.builder()
                 .username(request.getUsername())
                 .email(request.getEmail())
@@ -46,7 +47,14 @@ public class UserServiceImpl implements UserService {
                 .createdAt(Instant.now())
                 .build();
 
-        User savedUser = userRepository.save(user);
+        // A single INSERT; the unique constraints on email and username reject duplicates, also between
+        // concurrent registrations
+        User savedUser;
+        try {
+            savedUser = userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            throw duplicateUser(e);
+        }
 
         return UserResponse.builder()
                 .id(savedUser.getId().toString())
@@ -56,24 +64,33 @@ public class UserServiceImpl implements UserService {
                 .build();
     }
 
+    private CustomException duplicateUser(DataIntegrityViolationException e) {
+        String constraint = e.getCause() instanceof ConstraintViolationException violation
+                ? String.valueOf(violation.getConstraintName())
+                : "";
+        if (constraint.contains("email")) {
+            return new CustomException("Email already exists", HttpStatus.CONFLICT);
+        }
+        if (constraint.contains("username")) {
+            return new CustomException("Username already exists", HttpStatus.CONFLICT);
+        }
+        return new CustomException("User already exists", HttpStatus.CONFLICT);
+    }
+
     @Override
     public LoginResponse login(LoginRequest request) {
-        User user = userRepository.findByEmail(request.getEmail())
+        CachedUser user = userCache.findByEmail(request.getEmail())
                 .orElseThrow(() -> new CustomException("Invalid email or password", HttpStatus.UNAUTHORIZED));
 
-        if (!passwordEncoder.matches(request.getPassword(), user.getHashedPassword())) {
+        if (!passwordEncoder.matches(request.getPassword(), user.hashedPassword())) {
             throw new CustomException("Invalid email or password", HttpStatus.UNAUTHORIZED);
         }
 
-        String token = jwtUtil.generateToken(user.getEmail(), user.getId().toString());
-        RefreshToken refreshToken = refreshTokenService.createRefreshToken(user);
+        String token = jwtUtil.generateToken(user.email(), user.id().toString());
+        // The refresh token only needs the user's id, so a reference does without loading the row
+        RefreshToken refreshToken = refreshTokenService.createRefreshToken(userRepository.getReferenceById(user.id()));
 
-        UserResponse userResponse = UserResponse.builder()
-                .id(user.getId().toString())
-                .username(user.getUsername())
-                .email(user.getEmail())
-                .createdAt(user.getCreatedAt())
-                .build();
+        UserResponse userResponse = mapToUserResponse(user);
 
         return LoginResponse.builder()
                 .token(token)
@@ -88,8 +105,10 @@ public class UserServiceImpl implements UserService {
         RefreshToken token = refreshTokenService.findByToken(refreshToken);
         refreshTokenService.verifyExpiration(token);
 
-        User user = token.getUser();
-        String newAccessToken = jwtUtil.generateToken(user.getEmail(), user.getId().toString());
+        // Reading the id doesn't initialize the lazy user, the rest comes from the cache
+        CachedUser user = userCache.findById(token.getUser().getId())
+                .orElseThrow(() -> new CustomException("User not found", HttpStatus.UNAUTHORIZED));
+        String newAccessToken = jwtUtil.generateToken(user.email(), user.id().toString());
 
         return RefreshTokenResponse.builder()
                 .accessToken(newAccessToken)
@@ -100,7 +119,7 @@ public class UserServiceImpl implements UserService {
 
     @Override
     @Transactional
-    public void logout(String refreshToken) {
+    public void logout(String refreshToken, String accessToken) {
         try {
             RefreshToken token = refreshTokenService.findByToken(refreshToken);
             refreshTokenService.deleteRefreshToken(token);
@@ -108,18 +127,33 @@ public class UserServiceImpl implements UserService {
             // Token not found - already logged out or invalid token
             // We don't throw error here, logout is idempotent
         }
+
+        if (accessToken != null) {
+            try {
+                JwtClaims claims = jwtUtil.verifyToken(accessToken);
+                if (claims.tokenId() != null) {
+                    revokedTokenCache.revoke(claims.tokenId(), claims.expiresAt());
+                }
+            } catch (JwtException e) {
+                // Invalid or expired already, nothing to revoke
+            }
+        }
     }
 
     @Override
     public UserResponse getCurrentUser(String userId) {
-        User user = userRepository.findById(java.util.UUID.fromString(userId))
+        CachedUser user = userCache.findById(java.util.UUID.fromString(userId))
                 .orElseThrow(() -> new CustomException("User not found", HttpStatus.NOT_FOUND));
 
+        return mapToUserResponse(user);
+    }
+
+    private UserResponse mapToUserResponse(CachedUser user) {
         return UserResponse.builder()
-                .id(user.getId().toString())
-                .username(user.getUsername())
-                .email(user.getEmail())
-                .createdAt(user.getCreatedAt())
+                .id(user.id().toString())
+                .username(user.username())
+                .email(user.email())
+                .createdAt(user.createdAt())
                 .build();
     }
 }
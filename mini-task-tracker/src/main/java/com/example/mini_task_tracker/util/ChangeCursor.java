@@ -0,0 +1,45 @@
+package com.example.mini_task_tracker.util;
+
+import com.example.mini_task_tracker.exception.CustomException;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque change feed cursor: the number of the last change handed out, and the number up to which the client has no
+ * use for tombstones. The two are the same once a client is caught up; during a full sync the latter stays at the end
+ * of the sequence as it was when the sync started, since nothing deleted before then can be in the client's copy.
+ */
+@Getter
+@AllArgsConstructor
+public class ChangeCursor {
+
+    private final long seq;
+    private final long tombstonesAfter;
+
+    public String encode() {
+        String raw = seq + "\n" + tombstonesAfter;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static ChangeCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\n");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Unexpected cursor format");
+            }
+            long seq = Long.parseLong(parts[0]);
+            long tombstonesAfter = Long.parseLong(parts[1]);
+            if (seq < 0 || tombstonesAfter < 0) {
+                throw new IllegalArgumentException("Negative sequence number");
+            }
+            return new ChangeCursor(seq, tombstonesAfter);
+        } catch (IllegalArgumentException e) {
+            throw new CustomException("Invalid cursor", HttpStatus.BAD_REQUEST);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.mini_task_tracker.util;
+
+import com.example.mini_task_tracker.exception.CustomException;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+public final class ETagUtil {
+
+    private ETagUtil() {
+    }
+
+    // Strong ETag of a single task: its version
+    public static String forVersion(Long version) {
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * Weak ETag of a list response: a digest of the user's task fingerprint, the request parameters, which decide
+     * what the list shows, and the Accept header, which decides whether it is JSON, CBOR or Smile. Weak, since equal
+     * lists may still be serialized differently.
+     */
+    public static String forList(String fingerprint, WebRequest webRequest) {
+        String parameters = new TreeMap<>(webRequest.getParameterMap()).entrySet().stream()
+                .map(parameter -> parameter.getKey() + "=" + String.join(",", parameter.getValue()))
+                .collect(Collectors.joining("&"));
+        String accept = String.valueOf(webRequest.getHeader(HttpHeaders.ACCEPT));
+        String digest = DigestUtils.md5DigestAsHex(
+                (fingerprint + "?" + parameters + "#" + accept).getBytes(StandardCharsets.UTF_8));
+        return "W/\"" + digest + "\"";
+    }
+
+    /**
+     * Answers a list request with 304 Not Modified when the client's copy is current. Either way the response
+     * varies by Accept, so that caches don't hand one format's body to a client that asked for another, and may be
+     * kept by the client's own cache as long as it revalidates: Spring Security's default no-store would keep
+     * browsers from ever sending If-None-Match.
+     */
+    public static boolean checkListNotModified(String fingerprint, WebRequest webRequest) {
+        if (webRequest instanceof ServletWebRequest servletWebRequest && servletWebRequest.getResponse() != null) {
+            servletWebRequest.getResponse().addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+            servletWebRequest.getResponse().setHeader(HttpHeaders.CACHE_CONTROL,
+                    CacheControl.noCache().cachePrivate().getHeaderValue());
+        }
+        return webRequest.checkNotModified(forList(fingerprint, webRequest));
+    }
+
+    /**
+     * Reads the task version an If-Match header expects. Null when there is no header or it is "*",
+     * which matches any version. Anything that can't be one of our ETags can never match.
+     */
+    public static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String value = ifMatch.trim();
+        if (value.startsWith("\"") && value.endsWith("\"") && value.length() > 2) {
+            try {
+                return Long.parseLong(value.substring(1, value.length() - 1));
+            } catch (NumberFormatException e) {
+                // Falls through to the mismatch below
+            }
+        }
+        throw new CustomException("Task has been modified", HttpStatus.PRECONDITION_FAILED);
+    }
+}
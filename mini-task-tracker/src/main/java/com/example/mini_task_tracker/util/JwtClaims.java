@@ -0,0 +1,8 @@
+package com.example.mini_task_tracker.util;
+
+import java.time.Instant;
+
+// The claims of an access token whose signature and expiry have been verified. tokenId is the jti, which tokens
+// issued before it was introduced don't have
+public record JwtClaims(String tokenId, String username, String userId, Instant expiresAt) {
+}
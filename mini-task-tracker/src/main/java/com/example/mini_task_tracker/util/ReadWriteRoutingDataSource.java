@@ -0,0 +1,243 @@
+package com.example.mini_task_tracker.util;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Sends read-only transactions to the healthy replicas in turn and everything else to the primary. Needs to sit
+ * behind a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}, since the transaction's
+ * read-only flag is only known once it has begun.
+ * <p>
+ * Replicas are checked every {@code healthCheckInterval} against the primary's current WAL position; one that can't
+ * be reached, isn't a standby, or hasn't replayed up to that position and is more than {@code maxLag} behind gets no
+ * reads until it recovers, and one that fails to hand out a connection is taken out at once with the read falling
+ * back to the primary. A user whose transaction wrote keeps reading from the primary for
+ * {@code readYourWritesWindow} after it committed, so they see their own changes despite replication lag; the
+ * allowed lag is capped at that window, so that the replicas have them by the time the user reads from them again.
+ * Reads without a signed-in user, which are those of the login, registration and token refresh flows, always go to
+ * the primary: a user who just registered or logged in has no id to be recognized by yet.
+ */
+@Slf4j
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    private static final String PRIMARY = "primary";
+
+    private static final String PRIMARY_LSN_QUERY = "SELECT CAST(pg_current_wal_lsn() AS text)";
+
+    // Whether the instance is a standby at all, whether it has replayed the primary's WAL up to the position read
+    // from the primary just before, and otherwise how long ago the last transaction it replayed committed. The WAL it
+    // happens to have received is no yardstick: a standby whose WAL receiver stopped has replayed all of that too.
+    private static final String LAG_QUERY = """
+            SELECT pg_is_in_recovery(),
+                   COALESCE(pg_last_wal_replay_lsn() >= CAST(? AS pg_lsn), false),
+                   EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp())
+            """;
+
+    private record Replica(String name, DataSource dataSource, AtomicBoolean healthy) {
+    }
+
+    private final DataSource primary;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final Duration maxLag;
+    private final Supplier<String> currentUser;
+    // User ids that wrote within the read-your-writes window; null when the window is off
+    private final Cache<String, Boolean> recentWriters;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private final ScheduledExecutorService healthChecks;
+    private final Counter failovers;
+
+    public ReadWriteRoutingDataSource(
+            DataSource primary,
+            Map<String, DataSource> replicas,
+            Duration healthCheckInterval,
+            Duration maxLag,
+            Duration readYourWritesWindow,
+            Supplier<String> currentUser,
+            MeterRegistry meterRegistry) {
+        this.primary = primary;
+        if (!readYourWritesWindow.isZero() && (maxLag.isZero() || maxLag.compareTo(readYourWritesWindow) > 0)) {
+            log.warn("Replica max lag {} exceeds the read-your-writes window, using {}", maxLag, readYourWritesWindow);
+            maxLag = readYourWritesWindow;
+        }
+        this.maxLag = maxLag;
+        this.currentUser = currentUser;
+        this.recentWriters = readYourWritesWindow.isZero() ? null : Caffeine.newBuilder()
+                .maximumSize(100_000)
+                .expireAfterWrite(readYourWritesWindow)
+                .build();
+        this.failovers = meterRegistry.counter("datasource.replica.failovers");
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        replicas.forEach((name, dataSource) -> {
+            // Until the first check has passed, reads stay on the primary
+            Replica replica = new Replica(name, dataSource, new AtomicBoolean());
+            this.replicas.add(replica);
+            targets.put(name, dataSource);
+            meterRegistry.gauge("datasource.replica.healthy", Tags.of("replica", name), replica.healthy(),
+                    healthy -> healthy.get() ? 1 : 0);
+        });
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+
+        this.healthChecks = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-health-check");
+            thread.setDaemon(true);
+            return thread;
+        });
+        healthChecks.scheduleWithFixedDelay(this::checkReplicas, 0, healthCheckInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        Replica replica = chooseReplica();
+        return replica != null ? replica.name() : PRIMARY;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Replica replica = chooseReplica();
+        if (replica != null) {
+            try {
+                return replica.dataSource().getConnection();
+            } catch (SQLException e) {
+                markUnhealthy(replica, e.getMessage());
+                failovers.increment();
+            }
+        }
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        Replica replica = chooseReplica();
+        if (replica != null) {
+            try {
+                return replica.dataSource().getConnection(username, password);
+            } catch (SQLException e) {
+                markUnhealthy(replica, e.getMessage());
+                failovers.increment();
+            }
+        }
+        return primary.getConnection(username, password);
+    }
+
+    private Replica chooseReplica() {
+        String userId = currentUser.get();
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (recentWriters != null && userId != null && TransactionSynchronizationManager.isSynchronizationActive()) {
+                // The window starts once the write is visible, not when its connection was handed out
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        recentWriters.put(userId, Boolean.TRUE);
+                    }
+                });
+            }
+            return null;
+        }
+        if (userId == null || (recentWriters != null && recentWriters.getIfPresent(userId) != null)) {
+            return null;
+        }
+        int size = replicas.size();
+        int start = Math.floorMod(nextReplica.getAndIncrement(), Math.max(size, 1));
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (replica.healthy().get()) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    private void checkReplicas() {
+        String primaryLsn;
+        try (Connection connection = primary.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet lsn = statement.executeQuery(PRIMARY_LSN_QUERY)) {
+            lsn.next();
+            primaryLsn = lsn.getString(1);
+        } catch (SQLException | RuntimeException e) {
+            // Without the primary's position there is nothing to compare against; try again next time
+            log.warn("Could not read the primary's WAL position for the replica check: {}", e.getMessage());
+            return;
+        }
+
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.dataSource().getConnection();
+                 PreparedStatement statement = connection.prepareStatement(LAG_QUERY)) {
+                statement.setString(1, primaryLsn);
+                try (ResultSet lag = statement.executeQuery()) {
+                    lag.next();
+                    checkLag(replica, lag.getBoolean(1), lag.getBoolean(2), lag.getObject(3) != null ? lag.getDouble(3) : null);
+                }
+            } catch (SQLException | RuntimeException e) {
+                markUnhealthy(replica, e.getMessage());
+            }
+        }
+    }
+
+    // A replica behind the primary is judged by the age of its last replayed transaction, which overstates the lag
+    // right after a write that ends a quiet spell; such a replica sits out until the next check
+    private void checkLag(Replica replica, boolean inRecovery, boolean caughtUp, Double lastReplaySeconds) {
+        if (!inRecovery) {
+            markUnhealthy(replica, "not a standby");
+            return;
+        }
+        if (!caughtUp) {
+            if (lastReplaySeconds == null) {
+                markUnhealthy(replica, "nothing replayed yet");
+                return;
+            }
+            Duration replayLag = Duration.ofMillis((long) (lastReplaySeconds * 1000));
+            if (!maxLag.isZero() && replayLag.compareTo(maxLag) > 0) {
+                markUnhealthy(replica, "replay lag " + replayLag.toMillis() + " ms");
+                return;
+            }
+        }
+        if (replica.healthy().compareAndSet(false, true)) {
+            log.info("Replica {} is healthy, routing reads to it", replica.name());
+        }
+    }
+
+    private void markUnhealthy(Replica replica, String reason) {
+        if (replica.healthy().compareAndSet(true, false)) {
+            log.warn("Replica {} is unhealthy ({}), routing its reads to the primary", replica.name(), reason);
+        }
+    }
+
+    @Override
+    public void close() throws IOException, SQLException {
+        healthChecks.shutdownNow();
+        for (Replica replica : replicas) {
+            replica.dataSource().unwrap(Closeable.class).close();
+        }
+    }
+}
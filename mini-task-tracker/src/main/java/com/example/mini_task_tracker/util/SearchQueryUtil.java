@@ -0,0 +1,31 @@
+package com.example.mini_task_tracker.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+public final class SearchQueryUtil {
+
+    private static final Pattern WORD = Pattern.compile("[\\p{L}\\p{N}]+");
+
+    private SearchQueryUtil() {
+    }
+
+    /**
+     * Turns free text into a to_tsquery expression that requires every word as a prefix,
+     * e.g. {@code "proj plan"} becomes {@code "proj:* & plan:*"}. Returns null when the text has no words.
+     */
+    public static String toPrefixTsQuery(String search) {
+        if (search == null) {
+            return null;
+        }
+        List<String> terms = new ArrayList<>();
+        Matcher matcher = WORD.matcher(search.toLowerCase(Locale.ROOT));
+        while (matcher.find()) {
+            terms.add(matcher.group() + ":*");
+        }
+        return terms.isEmpty() ? null : String.join(" & ", terms);
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.mini_task_tracker.util;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Counts the JDBC statements the current thread executes, and the time spent executing them, while a
+ * {@link Scope} is open. {@link StatementCountingDataSource} reports every statement here; the request filter opens
+ * a scope per HTTP request, and tests can open their own around the code they want to pin:
+ * <pre>
+ * try (SqlStatementCounter.Scope sql = SqlStatementCounter.open()) {
+ *     mockMvc.perform(get("/api/tasks"));
+ *     sql.assertAtMost(2);
+ * }
+ * </pre>
+ * Scopes nest; a statement counts towards every scope open on the thread.
+ */
+public final class SqlStatementCounter {
+
+    private static final ThreadLocal<List<Scope>> OPEN_SCOPES = new ThreadLocal<>();
+
+    private SqlStatementCounter() {
+    }
+
+    public static Scope open() {
+        List<Scope> scopes = OPEN_SCOPES.get();
+        if (scopes == null) {
+            scopes = new ArrayList<>(2);
+            OPEN_SCOPES.set(scopes);
+        }
+        Scope scope = new Scope();
+        scopes.add(scope);
+        return scope;
+    }
+
+    static void record(long executionNanos) {
+        List<Scope> scopes = OPEN_SCOPES.get();
+        if (scopes != null) {
+            for (Scope scope : scopes) {
+                scope.statements++;
+                scope.executionNanos += executionNanos;
+            }
+        }
+    }
+
+    public static final class Scope implements AutoCloseable {
+
+        private int statements;
+        private long executionNanos;
+
+        private Scope() {
+        }
+
+        public int statements() {
+            return statements;
+        }
+
+        public Duration executionTime() {
+            return Duration.ofNanos(executionNanos);
+        }
+
+        public void assertExactly(int expectedStatements) {
+            if (statements != expectedStatements) {
+                throw new AssertionError("Expected " + expectedStatements + " SQL statements but "
+                        + statements + " were executed");
+            }
+        }
+
+        public void assertAtMost(int maxStatements) {
+            if (statements > maxStatements) {
+                throw new AssertionError("Expected at most " + maxStatements + " SQL statements but "
+                        + statements + " were executed");
+            }
+        }
+
+        @Override
+        public void close() {
+            List<Scope> scopes = OPEN_SCOPES.get();
+            if (scopes != null) {
+                scopes.remove(this);
+                if (scopes.isEmpty()) {
+                    OPEN_SCOPES.remove();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.mini_task_tracker.util;
+
+import org.springframework.jdbc.datasource.ConnectionProxy;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Reports every statement executed through its connections to {@link SqlStatementCounter}, with the time the
+ * execute call took. Sits below Hibernate and JdbcTemplate alike, so lazy loads and native queries count too;
+ * a JDBC batch counts as one statement, as it is one round trip.
+ */
+public class StatementCountingDataSource extends DelegatingDataSource {
+
+    public StatementCountingDataSource(DataSource target) {
+        super(target);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return counting(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return counting(super.getConnection(username, password));
+    }
+
+    private static Connection counting(Connection target) {
+        return (Connection) Proxy.newProxyInstance(
+                ConnectionProxy.class.getClassLoader(),
+                new Class<?>[]{ConnectionProxy.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "getTargetConnection" -> target;
+                    case "equals" -> proxy == args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "createStatement", "prepareStatement", "prepareCall" ->
+                            counting((Statement) invoke(target, method, args), method.getReturnType(), (Connection) proxy);
+                    default -> invoke(target, method, args);
+                });
+    }
+
+    private static Statement counting(Statement target, Class<?> statementType, Connection connection) {
+        return (Statement) Proxy.newProxyInstance(
+                ConnectionProxy.class.getClassLoader(),
+                new Class<?>[]{statementType},
+                (proxy, method, args) -> {
+                    String name = method.getName();
+                    if (name.startsWith("execute")) {
+                        long started = System.nanoTime();
+                        try {
+                            return invoke(target, method, args);
+                        } finally {
+                            SqlStatementCounter.record(System.nanoTime() - started);
+                        }
+                    }
+                    return switch (name) {
+                        case "getConnection" -> connection;
+                        case "equals" -> proxy == args[0];
+                        case "hashCode" -> System.identityHashCode(proxy);
+                        default -> invoke(target, method, args);
+                    };
+                });
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+}
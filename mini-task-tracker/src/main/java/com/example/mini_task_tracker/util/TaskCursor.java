@@ -0,0 +1,51 @@
+package com.example.mini_task_tracker.util;
+
+import com.example.mini_task_tracker.exception.CustomException;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Opaque keyset cursor: the sort the page was produced with, plus the sort key and id of its last row.
+ */
+@Getter
+@AllArgsConstructor
+public class TaskCursor {
+
+    private static final String NULL_VALUE = "~";
+    private static final String VALUE_PREFIX = "=";
+
+    private final String sortBy;
+    private final Sort.Direction direction;
+    private final UUID id;
+    private final String value;
+
+    public String encode() {
+        // The value goes last so it may contain any character, including the separator
+        String raw = String.join("\n",
+                sortBy,
+                direction.name(),
+                id.toString(),
+                value == null ? NULL_VALUE : VALUE_PREFIX + value);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static TaskCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\n", 4);
+            if (parts.length != 4) {
+                throw new IllegalArgumentException("Unexpected cursor format");
+            }
+            String value = parts[3].equals(NULL_VALUE) ? null : parts[3].substring(VALUE_PREFIX.length());
+            return new TaskCursor(parts[0], Sort.Direction.valueOf(parts[1]), UUID.fromString(parts[2]), value);
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new CustomException("Invalid cursor", HttpStatus.BAD_REQUEST);
+        }
+    }
+}
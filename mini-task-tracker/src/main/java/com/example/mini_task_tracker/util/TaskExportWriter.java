@@ -0,0 +1,106 @@
+package com.example.mini_task_tracker.util;
+
+import com.example.mini_task_tracker.dto.ExportFormat;
+import com.example.mini_task_tracker.dto.TaskResponse;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * Writes exported tasks in one of the export formats, one row at a time, so that nothing but the current row is
+ * held in memory.
+ */
+public abstract class TaskExportWriter {
+
+    protected final Writer writer;
+
+    protected TaskExportWriter(Writer writer) {
+        this.writer = writer;
+    }
+
+    public static TaskExportWriter of(ExportFormat format, Writer writer, JsonMapper jsonMapper) {
+        return switch (format) {
+            case NDJSON -> new NdjsonWriter(writer, jsonMapper);
+            case CSV -> new CsvWriter(writer);
+        };
+    }
+
+    public void writeHeader() throws IOException {
+    }
+
+    public abstract void write(TaskResponse task) throws IOException;
+
+    // One JSON object per line, serialized like the task list responses
+    private static class NdjsonWriter extends TaskExportWriter {
+
+        private final JsonMapper jsonMapper;
+
+        NdjsonWriter(Writer writer, JsonMapper jsonMapper) {
+            super(writer);
+            this.jsonMapper = jsonMapper;
+        }
+
+        @Override
+        public void write(TaskResponse task) throws IOException {
+            writer.write(jsonMapper.writeValueAsString(task));
+            writer.write('\n');
+        }
+    }
+
+    // RFC 4180: a header row, CRLF line endings and quoted fields where needed
+    private static class CsvWriter extends TaskExportWriter {
+
+        CsvWriter(Writer writer) {
+            super(writer);
+        }
+
+        @Override
+        public void writeHeader() throws IOException {
+            writer.write("id,title,description,status,priority,dueDate,createdAt,updatedAt,userId,version\r\n");
+        }
+
+        @Override
+        public void write(TaskResponse task) throws IOException {
+            writer.write(String.valueOf(task.getId()));
+            writer.write(',');
+            writeField(task.getTitle());
+            writer.write(',');
+            writeField(task.getDescription());
+            writer.write(',');
+            writeField(task.getStatus() != null ? task.getStatus().name() : null);
+            writer.write(',');
+            writeField(task.getPriority());
+            writer.write(',');
+            writeField(format(task.getDueDate()));
+            writer.write(',');
+            writeField(format(task.getCreatedAt()));
+            writer.write(',');
+            writeField(format(task.getUpdatedAt()));
+            writer.write(',');
+            writer.write(String.valueOf(task.getUserId()));
+            writer.write(',');
+            writer.write(String.valueOf(task.getVersion()));
+            writer.write("\r\n");
+        }
+
+        private void writeField(String value) throws IOException {
+            if (value == null) {
+                return;
+            }
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+                writer.write(value);
+                return;
+            }
+            writer.write('"');
+            writer.write(value.replace("\"", "\"\""));
+            writer.write('"');
+        }
+
+        private String format(Instant instant) {
+            return Objects.toString(instant, null);
+        }
+    }
+}
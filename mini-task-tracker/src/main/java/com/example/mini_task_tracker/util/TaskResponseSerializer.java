@@ -0,0 +1,126 @@
+package com.example.mini_task_tracker.util;
+
+import com.example.mini_task_tracker.dto.TaskResponse;
+import tools.jackson.core.JacksonException;
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.databind.SerializationContext;
+import tools.jackson.databind.cfg.DateTimeFeature;
+import tools.jackson.databind.ser.std.StdSerializer;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+/**
+ * Writes a {@link TaskResponse} field by field instead of through Jackson's reflective bean serializer; task lists
+ * are by far the most serialized payload. The output is what the bean serializer would produce, nulls included.
+ * Timestamps are formatted by hand rather than through {@code DateTimeFormatter}, which allocated most of the bytes
+ * of a list response; ids still go through the mapper's own serializer, so binary formats keep writing them as bytes.
+ */
+public class TaskResponseSerializer extends StdSerializer<TaskResponse> {
+
+    // 0000-01-01T00:00:00Z and 9999-12-31T23:59:59Z
+    private static final long MIN_FOUR_DIGIT_YEAR_SECOND = -62_167_219_200L;
+    private static final long MAX_FOUR_DIGIT_YEAR_SECOND = 253_402_300_799L;
+
+    public TaskResponseSerializer() {
+        super(TaskResponse.class);
+    }
+
+    @Override
+    public void serialize(TaskResponse task, JsonGenerator gen, SerializationContext ctxt) throws JacksonException {
+        gen.writeStartObject(task, 10);
+        writeUuid("id", task.getId(), gen, ctxt);
+        gen.writeStringProperty("title", task.getTitle());
+        gen.writeStringProperty("description", task.getDescription());
+        gen.writeStringProperty("status", task.getStatus() != null ? task.getStatus().name() : null);
+        gen.writeStringProperty("priority", task.getPriority());
+        writeInstant("dueDate", task.getDueDate(), gen, ctxt);
+        writeInstant("createdAt", task.getCreatedAt(), gen, ctxt);
+        writeInstant("updatedAt", task.getUpdatedAt(), gen, ctxt);
+        writeUuid("userId", task.getUserId(), gen, ctxt);
+        gen.writeName("version");
+        if (task.getVersion() != null) {
+            gen.writeNumber(task.getVersion());
+        } else {
+            gen.writeNull();
+        }
+        gen.writeEndObject();
+    }
+
+    private static void writeUuid(String name, UUID value, JsonGenerator gen, SerializationContext ctxt) {
+        gen.writeName(name);
+        if (value != null) {
+            ctxt.findValueSerializer(UUID.class).serialize(value, gen, ctxt);
+        } else {
+            gen.writeNull();
+        }
+    }
+
+    private static void writeInstant(String name, Instant value, JsonGenerator gen, SerializationContext ctxt) {
+        gen.writeName(name);
+        if (value == null) {
+            gen.writeNull();
+        } else if (ctxt.isEnabled(DateTimeFeature.WRITE_DATES_AS_TIMESTAMPS)) {
+            ctxt.findValueSerializer(Instant.class).serialize(value, gen, ctxt);
+        } else {
+            char[] iso = new char[30];
+            int length = formatIsoInstant(value, iso);
+            if (length > 0) {
+                gen.writeString(iso, 0, length);
+            } else {
+                gen.writeString(value.toString());
+            }
+        }
+    }
+
+    /**
+     * Writes {@code instant} the way {@code DateTimeFormatter.ISO_INSTANT} does, e.g. 2026-01-31T09:15:00.250Z, and
+     * returns the length, or 0 for a year outside 0000-9999.
+     */
+    static int formatIsoInstant(Instant instant, char[] buf) {
+        // Checked before converting, as the far ends of Instant are out of LocalDateTime's range
+        long epochSecond = instant.getEpochSecond();
+        if (epochSecond < MIN_FOUR_DIGIT_YEAR_SECOND || epochSecond > MAX_FOUR_DIGIT_YEAR_SECOND) {
+            return 0;
+        }
+        LocalDateTime dateTime = LocalDateTime.ofEpochSecond(epochSecond, 0, ZoneOffset.UTC);
+        writeDigits(buf, 0, dateTime.getYear(), 4);
+        buf[4] = '-';
+        writeDigits(buf, 5, dateTime.getMonthValue(), 2);
+        buf[7] = '-';
+        writeDigits(buf, 8, dateTime.getDayOfMonth(), 2);
+        buf[10] = 'T';
+        writeDigits(buf, 11, dateTime.getHour(), 2);
+        buf[13] = ':';
+        writeDigits(buf, 14, dateTime.getMinute(), 2);
+        buf[16] = ':';
+        writeDigits(buf, 17, dateTime.getSecond(), 2);
+        int pos = 19;
+        int nanos = instant.getNano();
+        // Fractions come in groups of three digits, as many as needed
+        if (nanos > 0) {
+            buf[pos++] = '.';
+            if (nanos % 1_000_000 == 0) {
+                writeDigits(buf, pos, nanos / 1_000_000, 3);
+                pos += 3;
+            } else if (nanos % 1_000 == 0) {
+                writeDigits(buf, pos, nanos / 1_000, 6);
+                pos += 6;
+            } else {
+                writeDigits(buf, pos, nanos, 9);
+                pos += 9;
+            }
+        }
+        buf[pos++] = 'Z';
+        return pos;
+    }
+
+    private static void writeDigits(char[] buf, int offset, int value, int width) {
+        for (int i = offset + width - 1; i >= offset; i--) {
+            buf[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+}
@@ -0,0 +1,15 @@
+-- A user has at most one refresh token, which login replaces with a single upsert on user_id.
+-- Keep only the newest token of users that somehow ended up with several.
+DELETE FROM refresh_tokens r
+USING refresh_tokens newer
+WHERE newer.user_id = r.user_id
+  AND (newer.created_at, newer.id) > (r.created_at, r.id);
+
+DROP INDEX idx_refresh_tokens_user_id;
+CREATE UNIQUE INDEX idx_refresh_tokens_user_id ON refresh_tokens(user_id);
+
+-- Duplicates the index behind the UNIQUE constraint on token
+DROP INDEX idx_refresh_tokens_token;
+
+-- Lets the purge job find expired tokens without scanning the table
+CREATE INDEX idx_refresh_tokens_expiry_date ON refresh_tokens(expiry_date);
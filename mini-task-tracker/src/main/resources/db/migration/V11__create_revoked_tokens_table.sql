@@ -0,0 +1,8 @@
+-- Access tokens revoked before their expiry (e.g. on logout), by jti. Rows are only needed until the token
+-- would have expired anyway; see RevokedTokenCache
+CREATE TABLE revoked_tokens (
+    jti VARCHAR(64) PRIMARY KEY,
+    expires_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX idx_revoked_tokens_expires_at ON revoked_tokens(expires_at);
@@ -0,0 +1,24 @@
+-- Per-user task counts by status and priority behind GET /api/tasks/stats. The task service keeps them up to date
+-- in the same transaction as each write; TaskCounterReconciliationJob repairs any drift. Tasks without a priority
+-- are counted under '' so that priority can be part of the key.
+CREATE TABLE task_counters (
+    user_id UUID NOT NULL,
+    status task_status NOT NULL,
+    priority VARCHAR(50) NOT NULL,
+    task_count BIGINT NOT NULL,
+
+    PRIMARY KEY (user_id, status, priority),
+    CONSTRAINT fk_task_counters_user
+        FOREIGN KEY (user_id)
+            REFERENCES users(id)
+            ON DELETE CASCADE
+);
+
+INSERT INTO task_counters (user_id, status, priority, task_count)
+SELECT user_id, status, COALESCE(priority, ''), COUNT(*)
+FROM tasks
+GROUP BY user_id, status, COALESCE(priority, '');
+
+-- Overdue tasks are the open ones past their due date. Done tasks, usually most of the table, never are,
+-- so the index leaves them out and counting a user's overdue tasks stays an index-only range scan
+CREATE INDEX idx_tasks_user_due_date_open ON tasks(user_id, due_date) WHERE status <> 'DONE';
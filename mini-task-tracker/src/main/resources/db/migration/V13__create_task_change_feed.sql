@@ -0,0 +1,51 @@
+-- Change feed behind GET /api/tasks/changes. Every write of a task takes the next number of its user's change
+-- sequence: a task carries the number of its latest change, a deleted task leaves a tombstone with the number of
+-- its deletion. Writers of a user take the numbers from task_change_sequences, whose row stays locked until they
+-- commit, so the numbers become visible in order and a reader never skips one that commits later.
+CREATE TABLE task_change_sequences (
+    user_id UUID PRIMARY KEY,
+    last_seq BIGINT NOT NULL,
+    -- Highest change whose tombstone was purged; clients that synced before it have to start over
+    purged_through BIGINT NOT NULL DEFAULT 0,
+
+    CONSTRAINT fk_task_change_sequences_user
+        FOREIGN KEY (user_id)
+            REFERENCES users(id)
+            ON DELETE CASCADE
+);
+
+CREATE TABLE task_tombstones (
+    task_id UUID PRIMARY KEY,
+    user_id UUID NOT NULL,
+    change_seq BIGINT NOT NULL,
+    deleted_at TIMESTAMP NOT NULL,
+
+    CONSTRAINT fk_task_tombstones_user
+        FOREIGN KEY (user_id)
+            REFERENCES users(id)
+            ON DELETE CASCADE
+);
+
+ALTER TABLE tasks ADD COLUMN change_seq BIGINT;
+
+-- Existing tasks get their user's first numbers, oldest change first
+UPDATE tasks t
+SET change_seq = numbered.change_seq
+FROM (
+    SELECT id, ROW_NUMBER() OVER (PARTITION BY user_id ORDER BY updated_at, id) AS change_seq
+    FROM tasks
+) numbered
+WHERE numbered.id = t.id;
+
+ALTER TABLE tasks ALTER COLUMN change_seq SET NOT NULL;
+
+INSERT INTO task_change_sequences (user_id, last_seq)
+SELECT user_id, MAX(change_seq)
+FROM tasks
+GROUP BY user_id;
+
+-- A sync reads the changes after its cursor as a range scan, however many tasks the user has
+CREATE INDEX idx_tasks_user_change_seq ON tasks(user_id, change_seq);
+CREATE INDEX idx_task_tombstones_user_change_seq ON task_tombstones(user_id, change_seq);
+-- For the purge of old tombstones
+CREATE INDEX idx_task_tombstones_deleted_at ON task_tombstones(deleted_at);
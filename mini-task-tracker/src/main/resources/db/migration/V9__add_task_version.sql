@@ -0,0 +1,2 @@
+-- Optimistic locking: bumped on every update, exposed to clients as the task's ETag
+ALTER TABLE tasks ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
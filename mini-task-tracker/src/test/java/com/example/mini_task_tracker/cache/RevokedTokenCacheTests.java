@@ -0,0 +1,85 @@
+package com.example.mini_task_tracker.cache;
+
+import com.example.mini_task_tracker.entity.RevokedToken;
+import com.example.mini_task_tracker.repository.RevokedTokenRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Revocations against the local database, through caches of their own standing in for separate instances.
+ */
+@SpringBootTest
+class RevokedTokenCacheTests {
+
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+
+    private final List<String> jtis = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        revokedTokenRepository.deleteAllById(jtis);
+    }
+
+    @Test
+    void revokedTokenIsRejectedAtOnce() {
+        RevokedTokenCache cache = newCache();
+        String jti = jti();
+
+        cache.revoke(jti, Instant.now().plus(Duration.ofMinutes(15)));
+
+        assertTrue(cache.isRevoked(jti));
+        assertFalse(cache.isRevoked(jti()));
+        assertFalse(cache.isRevoked(null));
+    }
+
+    @Test
+    void revocationOfAnotherInstanceIsRejectedAfterReload() {
+        RevokedTokenCache revoking = newCache();
+        RevokedTokenCache other = newCache();
+        String jti = jti();
+
+        revoking.revoke(jti, Instant.now().plus(Duration.ofMinutes(15)));
+        assertFalse(other.isRevoked(jti));
+        other.reload();
+
+        assertTrue(other.isRevoked(jti));
+        // The revoking instance rebuilds its filter on reload as well and must not lose the revocation
+        revoking.reload();
+        assertTrue(revoking.isRevoked(jti));
+    }
+
+    @Test
+    void revocationIsDroppedOnceTheTokenExpired() {
+        String jti = jti();
+        revokedTokenRepository.save(new RevokedToken(jti, Instant.now().minus(Duration.ofMinutes(1))));
+        RevokedTokenCache cache = newCache();
+
+        cache.reload();
+
+        assertFalse(cache.isRevoked(jti));
+        assertFalse(revokedTokenRepository.existsById(jti));
+    }
+
+    private RevokedTokenCache newCache() {
+        return new RevokedTokenCache(revokedTokenRepository, 1000, new SimpleMeterRegistry());
+    }
+
+    private String jti() {
+        String jti = UUID.randomUUID().toString();
+        jtis.add(jti);
+        return jti;
+    }
+}
@@ -0,0 +1,203 @@
+package com.example.mini_task_tracker.controller;
+
+import com.example.mini_task_tracker.util.JwtUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * POST /api/tasks/batch against the local database, for a user of its own that is removed again afterwards.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class TaskBatchTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+    private final UUID userId = UUID.randomUUID();
+    private String authorization;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("INSERT INTO users (id, username, email, hashed_password) VALUES (?, ?, ?, 'x')",
+                userId, "batch_" + userId, "batch_" + userId + "@example.com");
+        authorization = "Bearer " + jwtUtil.generateToken("batch_" + userId + "@example.com", userId.toString());
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM users WHERE id = ?", userId);
+    }
+
+    @Test
+    void mixedBatchCreatesUpdatesAndDeletes() throws Exception {
+        String kept = createTask("{\"title\":\"kept\",\"status\":\"TODO\",\"priority\":\"high\"}");
+        String removed = createTask("{\"title\":\"removed\",\"status\":\"IN_PROGRESS\",\"priority\":\"low\"}");
+        long lastSeq = lastSeq();
+
+        JsonNode response = batch("""
+                {"operations":[
+                  {"type":"CREATE","title":"new","status":"DONE","priority":"medium"},
+                  {"type":"UPDATE","id":"%s","status":"DONE","title":"kept and done"},
+                  {"type":"DELETE","id":"%s"}
+                ]}""".formatted(kept, removed));
+
+        assertEquals(3, response.get("succeeded").asInt());
+        assertEquals(0, response.get("failed").asInt());
+        JsonNode results = response.get("results");
+        assertEquals(201, results.get(0).get("status").asInt());
+        assertEquals(200, results.get(1).get("status").asInt());
+        assertEquals(204, results.get(2).get("status").asInt());
+        String created = results.get(0).get("id").asString();
+        assertEquals("new", results.get(0).get("task").get("title").asString());
+        assertEquals("kept and done", results.get(1).get("task").get("title").asString());
+        assertEquals(1, results.get(1).get("task").get("version").asLong());
+
+        Map<String, Object> updated = jdbcTemplate.queryForMap(
+                "SELECT title, CAST(status AS text) AS status, priority, version FROM tasks WHERE id = CAST(? AS uuid)",
+                kept);
+        assertEquals("kept and done", updated.get("title"));
+        assertEquals("DONE", updated.get("status"));
+        assertEquals("high", updated.get("priority"));
+        // Written once, not once before and once after it got its change number
+        assertEquals(1L, updated.get("version"));
+        assertEquals(0, count("SELECT COUNT(*) FROM tasks WHERE id = CAST(? AS uuid)", removed));
+        assertEquals(1, count("SELECT COUNT(*) FROM tasks WHERE id = CAST(? AS uuid)", created));
+
+        // One change number per operation, in request order, with a tombstone for the deleted task
+        assertEquals(lastSeq + 3, lastSeq());
+        assertEquals(lastSeq + 1, count("SELECT change_seq FROM tasks WHERE id = CAST(? AS uuid)", created));
+        assertEquals(lastSeq + 2, count("SELECT change_seq FROM tasks WHERE id = CAST(? AS uuid)", kept));
+        assertEquals(lastSeq + 3, count("SELECT change_seq FROM task_tombstones WHERE task_id = CAST(? AS uuid)", removed));
+    }
+
+    @Test
+    void versionConflictFailsOnlyItsOwnOperation() throws Exception {
+        String stale = createTask("{\"title\":\"stale\",\"status\":\"TODO\"}");
+        String current = createTask("{\"title\":\"current\",\"status\":\"TODO\"}");
+        // Someone else changes the task in between, so version 0 is out of date
+        mockMvc.perform(authorized(patch("/api/tasks/" + stale))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"changed elsewhere\"}"))
+                .andExpect(status().isOk());
+        long lastSeq = lastSeq();
+
+        JsonNode response = batch("""
+                {"operations":[
+                  {"type":"UPDATE","id":"%1$s","version":0,"status":"DONE"},
+                  {"type":"DELETE","id":"%1$s","version":0},
+                  {"type":"UPDATE","id":"%2$s","version":0,"status":"IN_PROGRESS"},
+                  {"type":"DELETE","id":"%2$s","version":0},
+                  {"type":"UPDATE","id":"%2$s","title":"after delete"},
+                  {"type":"CREATE","title":"created"}
+                ]}""".formatted(stale, current));
+
+        assertEquals(3, response.get("succeeded").asInt());
+        assertEquals(3, response.get("failed").asInt());
+        JsonNode results = response.get("results");
+        assertEquals(412, results.get(0).get("status").asInt());
+        assertEquals(412, results.get(1).get("status").asInt());
+        assertEquals(200, results.get(2).get("status").asInt());
+        assertEquals(204, results.get(3).get("status").asInt());
+        // The delete earlier in the batch already took the task away
+        assertEquals(404, results.get(4).get("status").asInt());
+        assertEquals(201, results.get(5).get("status").asInt());
+        assertTrue(results.get(0).get("task").isNull());
+
+        // The conflicting task is left as the other writer made it
+        Map<String, Object> untouched = jdbcTemplate.queryForMap(
+                "SELECT title, CAST(status AS text) AS status, version FROM tasks WHERE id = CAST(? AS uuid)", stale);
+        assertEquals("changed elsewhere", untouched.get("title"));
+        assertEquals("TODO", untouched.get("status"));
+        assertEquals(1L, untouched.get("version"));
+        assertEquals(0, count("SELECT COUNT(*) FROM tasks WHERE id = CAST(? AS uuid)", current));
+        // Only the operations that succeeded took change numbers
+        assertEquals(lastSeq + 3, lastSeq());
+    }
+
+    @Test
+    void batchOfOnlyConflictsWritesNothing() throws Exception {
+        String task = createTask("{\"title\":\"task\"}");
+        mockMvc.perform(authorized(patch("/api/tasks/" + task))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"changed elsewhere\"}"))
+                .andExpect(status().isOk());
+        String otherUsersTask = jdbcTemplate.queryForObject(
+                "SELECT CAST(id AS text) FROM tasks WHERE user_id <> ? LIMIT 1", String.class, userId);
+        long lastSeq = lastSeq();
+
+        JsonNode response = batch("""
+                {"operations":[
+                  {"type":"UPDATE","id":"%s","version":0,"title":"lost update"},
+                  {"type":"DELETE","id":"%s"},
+                  {"type":"DELETE","id":"%s"}
+                ]}""".formatted(task, otherUsersTask, UUID.randomUUID()));
+
+        assertEquals(0, response.get("succeeded").asInt());
+        JsonNode results = response.get("results");
+        assertEquals(412, results.get(0).get("status").asInt());
+        assertEquals(403, results.get(1).get("status").asInt());
+        assertEquals(404, results.get(2).get("status").asInt());
+        assertEquals(lastSeq, lastSeq());
+        assertEquals(1, count("SELECT COUNT(*) FROM tasks WHERE id = CAST(? AS uuid)", otherUsersTask));
+        assertEquals("changed elsewhere", jdbcTemplate.queryForObject(
+                "SELECT title FROM tasks WHERE id = CAST(? AS uuid)", String.class, task));
+    }
+
+    private String createTask(String json) throws Exception {
+        String body = mockMvc.perform(authorized(post("/api/tasks"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return jsonMapper.readTree(body).get("id").asString();
+    }
+
+    private JsonNode batch(String json) throws Exception {
+        String body = mockMvc.perform(authorized(post("/api/tasks/batch"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return jsonMapper.readTree(body);
+    }
+
+    private long lastSeq() {
+        return count("SELECT COALESCE(MAX(last_seq), 0) FROM task_change_sequences WHERE user_id = ?", userId);
+    }
+
+    private long count(String sql, Object... args) {
+        return jdbcTemplate.queryForObject(sql, Long.class, args);
+    }
+
+    private MockHttpServletRequestBuilder authorized(MockHttpServletRequestBuilder request) {
+        return request.header(HttpHeaders.AUTHORIZATION, authorization);
+    }
+}
@@ -0,0 +1,138 @@
+package com.example.mini_task_tracker.controller;
+
+import com.example.mini_task_tracker.repository.TaskRepository;
+import com.example.mini_task_tracker.util.ChangeCursor;
+import com.example.mini_task_tracker.util.JwtUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * GET /api/tasks/changes against the local database, for a user of its own that is removed again afterwards.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class TaskChangeFeedTests {
+
+    // Tombstones are backdated to before this, so that the purge leaves those of other users alone
+    private static final Instant LONG_AGO = Instant.parse("2000-01-02T00:00:00Z");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+    private final UUID userId = UUID.randomUUID();
+    private String authorization;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("INSERT INTO users (id, username, email, hashed_password) VALUES (?, ?, ?, 'x')",
+                userId, "feed_" + userId, "feed_" + userId + "@example.com");
+        authorization = "Bearer " + jwtUtil.generateToken("feed_" + userId + "@example.com", userId.toString());
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM users WHERE id = ?", userId);
+    }
+
+    @Test
+    void fullSyncPagesThroughAfterTombstonesWerePurged() throws Exception {
+        Set<String> kept = new HashSet<>();
+        for (int i = 0; i < 5; i++) {
+            kept.add(createTask("kept " + i));
+        }
+        String staleCursor = changes(null, 100).get("cursor").asString();
+
+        // A deletion whose tombstone is purged moves purged_through past every kept task's change number
+        String deletedId = createTask("deleted");
+        mockMvc.perform(authorized(delete("/api/tasks/" + deletedId))).andExpect(status().isNoContent());
+        jdbcTemplate.update("UPDATE task_tombstones SET deleted_at = ? WHERE user_id = ?",
+                Timestamp.from(LONG_AGO.minusSeconds(60)), userId);
+        assertEquals(1, taskRepository.purgeTombstonesBatch(LONG_AGO, 1000));
+
+        // A full sync two tasks at a time gets every kept task without being sent back to the start
+        Set<String> synced = new HashSet<>();
+        String cursor = null;
+        JsonNode page;
+        do {
+            page = changes(cursor, 2);
+            assertFalse(page.get("resyncRequired").asBoolean());
+            page.get("upserted").forEach(task -> synced.add(task.get("id").asString()));
+            cursor = page.get("cursor").asString();
+        } while (page.get("hasMore").asBoolean());
+        assertEquals(kept, synced);
+
+        // Caught up: nothing more, and the cursor stays valid
+        page = changes(cursor, 2);
+        assertFalse(page.get("resyncRequired").asBoolean());
+        assertEquals(0, page.get("upserted").size());
+
+        // A cursor further along than this database has replayed, as a lagging replica would see it, waits for it
+        // to catch up instead of forcing a resync
+        String ahead = new ChangeCursor(1_000_000, 1_000_000).encode();
+        page = changes(ahead, 2);
+        assertFalse(page.get("resyncRequired").asBoolean());
+        assertEquals(ahead, page.get("cursor").asString());
+
+        // A client that synced before the deletion can no longer learn about it
+        assertTrue(changes(staleCursor, 100).get("resyncRequired").asBoolean());
+    }
+
+    private String createTask(String title) throws Exception {
+        String body = mockMvc.perform(authorized(post("/api/tasks"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"" + title + "\"}"))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return jsonMapper.readTree(body).get("id").asString();
+    }
+
+    private JsonNode changes(String since, int size) throws Exception {
+        MockHttpServletRequestBuilder request = authorized(get("/api/tasks/changes")).param("size", String.valueOf(size));
+        if (since != null) {
+            request.param("since", since);
+        }
+        String body = mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return jsonMapper.readTree(body);
+    }
+
+    private MockHttpServletRequestBuilder authorized(MockHttpServletRequestBuilder request) {
+        return request.header(HttpHeaders.AUTHORIZATION, authorization);
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.mini_task_tracker.controller;
+
+import com.example.mini_task_tracker.cache.UserCache;
+import com.example.mini_task_tracker.util.JwtUtil;
+import com.example.mini_task_tracker.util.SqlStatementCounter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.UUID;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Pins how many SQL statements the read endpoints may issue, so that an added lazy load or N+1 fails here rather
+ * than in production. Runs against the sample user of the local database.
+ */
+@SpringBootTest(properties = "sql-statements.enabled=true")
+@AutoConfigureMockMvc
+class TaskStatementBudgetTests {
+
+    private static final String USER_ID = "a0eebc99-9c0b-4ef8-bb6d-6bb9bd380a11";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private UserCache userCache;
+
+    private String authorization;
+
+    @BeforeEach
+    void setUp() {
+        authorization = "Bearer " + jwtUtil.generateToken("john@example.com", USER_ID);
+    }
+
+    @Test
+    void listingTasksIssuesAtMostThreeStatements() throws Exception {
+        // List fingerprint for the ETag, the page and its count
+        try (SqlStatementCounter.Scope sql = SqlStatementCounter.open()) {
+            mockMvc.perform(get("/api/tasks").param("size", "10").param("status", "TODO")
+                            .header(HttpHeaders.AUTHORIZATION, authorization))
+                    .andExpect(status().isOk());
+            sql.assertAtMost(3);
+        }
+    }
+
+    @Test
+    void cursorPageIssuesAtMostTwoStatements() throws Exception {
+        try (SqlStatementCounter.Scope sql = SqlStatementCounter.open()) {
+            mockMvc.perform(get("/api/tasks/cursor").param("size", "10")
+                            .header(HttpHeaders.AUTHORIZATION, authorization))
+                    .andExpect(status().isOk());
+            sql.assertAtMost(2);
+        }
+    }
+
+    @Test
+    void statsIssueAtMostTwoStatements() throws Exception {
+        // The user's counters and the overdue count
+        try (SqlStatementCounter.Scope sql = SqlStatementCounter.open()) {
+            mockMvc.perform(get("/api/tasks/stats").header(HttpHeaders.AUTHORIZATION, authorization))
+                    .andExpect(status().isOk());
+            sql.assertAtMost(2);
+        }
+    }
+
+    @Test
+    void changesIssueAtMostThreeStatements() throws Exception {
+        // The user's change sequence, the changed tasks and the tombstones
+        try (SqlStatementCounter.Scope sql = SqlStatementCounter.open()) {
+            mockMvc.perform(get("/api/tasks/changes").param("size", "10")
+                            .header(HttpHeaders.AUTHORIZATION, authorization))
+                    .andExpect(status().isOk());
+            sql.assertAtMost(3);
+        }
+    }
+
+    @Test
+    void currentUserIssuesExactlyOneStatement() throws Exception {
+        // Cold, and exact, so that this also fails when statements stop being counted at all
+        userCache.findById(UUID.fromString(USER_ID)).ifPresent(userCache::evict);
+        try (SqlStatementCounter.Scope sql = SqlStatementCounter.open()) {
+            mockMvc.perform(get("/api/users/me").header(HttpHeaders.AUTHORIZATION, authorization))
+                    .andExpect(status().isOk());
+            sql.assertExactly(1);
+        }
+    }
+}
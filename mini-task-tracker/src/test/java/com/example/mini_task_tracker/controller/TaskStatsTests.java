@@ -0,0 +1,174 @@
+package com.example.mini_task_tracker.controller;
+
+import com.example.mini_task_tracker.util.JwtUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * GET /api/tasks/stats answers from the task counters, which every write keeps up to date in the same transaction.
+ * After each kind of write they have to agree with a recount of the tasks themselves.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class TaskStatsTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+    private final UUID userId = UUID.randomUUID();
+    private String authorization;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("INSERT INTO users (id, username, email, hashed_password) VALUES (?, ?, ?, 'x')",
+                userId, "stats_" + userId, "stats_" + userId + "@example.com");
+        authorization = "Bearer " + jwtUtil.generateToken("stats_" + userId + "@example.com", userId.toString());
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM users WHERE id = ?", userId);
+    }
+
+    @Test
+    void statsMatchARecountAfterEveryWrite() throws Exception {
+        String yesterday = Instant.now().minus(1, ChronoUnit.DAYS).truncatedTo(ChronoUnit.SECONDS).toString();
+        String first = createTask("{\"title\":\"first\",\"status\":\"TODO\",\"priority\":\"high\",\"dueDate\":\"" + yesterday + "\"}");
+        String second = createTask("{\"title\":\"second\",\"status\":\"IN_PROGRESS\",\"priority\":\"low\"}");
+        String third = createTask("{\"title\":\"third\",\"status\":\"TODO\"}");
+        createTask("{\"title\":\"fourth\",\"status\":\"DONE\",\"priority\":\"high\",\"dueDate\":\"" + yesterday + "\"}");
+        assertStatsMatchRecount();
+
+        // PUT moves the task between counters
+        mockMvc.perform(authorized(put("/api/tasks/" + second))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"status\":\"DONE\",\"priority\":\"medium\"}"))
+                .andExpect(status().isOk());
+        assertStatsMatchRecount();
+
+        // PATCH of the status, of the priority, of both, and of neither
+        patchTask(first, "{\"status\":\"IN_PROGRESS\"}");
+        assertStatsMatchRecount();
+        patchTask(third, "{\"priority\":\"low\"}");
+        assertStatsMatchRecount();
+        patchTask(first, "{\"status\":\"DONE\",\"priority\":\"medium\"}");
+        assertStatsMatchRecount();
+        patchTask(third, "{\"title\":\"third, renamed\"}");
+        assertStatsMatchRecount();
+
+        // A PATCH that loses its version check changes nothing
+        mockMvc.perform(authorized(patch("/api/tasks/" + first))
+                        .header(HttpHeaders.IF_MATCH, "\"0\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"status\":\"TODO\"}"))
+                .andExpect(status().isPreconditionFailed());
+        assertStatsMatchRecount();
+
+        mockMvc.perform(authorized(delete("/api/tasks/" + third))).andExpect(status().isNoContent());
+        assertStatsMatchRecount();
+
+        // A batch with every operation type, one of them failing
+        mockMvc.perform(authorized(post("/api/tasks/batch"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"operations":[
+                                  {"type":"CREATE","title":"created","status":"IN_PROGRESS","priority":"high"},
+                                  {"type":"CREATE","title":"created without priority","status":"DONE"},
+                                  {"type":"UPDATE","id":"%s","status":"TODO","priority":"low"},
+                                  {"type":"UPDATE","id":"%s","version":0,"status":"TODO"},
+                                  {"type":"DELETE","id":"%s"}
+                                ]}""".formatted(first, second, second)))
+                .andExpect(status().isOk());
+        assertStatsMatchRecount();
+    }
+
+    private void assertStatsMatchRecount() throws Exception {
+        String body = mockMvc.perform(authorized(get("/api/tasks/stats")))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        JsonNode stats = jsonMapper.readTree(body);
+
+        Map<String, Long> byStatus = new HashMap<>(Map.of("TODO", 0L, "IN_PROGRESS", 0L, "DONE", 0L));
+        jdbcTemplate.query("SELECT CAST(status AS text) AS status, COUNT(*) AS n FROM tasks WHERE user_id = ? " +
+                        "GROUP BY status",
+                rs -> {
+                    byStatus.put(rs.getString("status"), rs.getLong("n"));
+                }, userId);
+        Map<String, Long> byPriority = new HashMap<>();
+        jdbcTemplate.query("SELECT priority, COUNT(*) AS n FROM tasks WHERE user_id = ? AND priority IS NOT NULL " +
+                        "GROUP BY priority",
+                rs -> {
+                    byPriority.put(rs.getString("priority"), rs.getLong("n"));
+                }, userId);
+
+        assertEquals(count("SELECT COUNT(*) FROM tasks WHERE user_id = ?"), stats.get("total").asLong());
+        assertEquals(byStatus, toMap(stats.get("byStatus")));
+        assertEquals(byPriority, toMap(stats.get("byPriority")));
+        assertEquals(count("SELECT COUNT(*) FROM tasks WHERE user_id = ? AND priority IS NULL"),
+                stats.get("withoutPriority").asLong());
+        assertEquals(count("SELECT COUNT(*) FROM tasks WHERE user_id = ? AND status <> 'DONE' AND due_date < now()"),
+                stats.get("overdue").asLong());
+    }
+
+    private Map<String, Long> toMap(JsonNode node) {
+        Map<String, Long> map = new HashMap<>();
+        node.properties().forEach(entry -> map.put(entry.getKey(), entry.getValue().asLong()));
+        return map;
+    }
+
+    private long count(String sql) {
+        return jdbcTemplate.queryForObject(sql, Long.class, userId);
+    }
+
+    private String createTask(String json) throws Exception {
+        String body = mockMvc.perform(authorized(post("/api/tasks"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return jsonMapper.readTree(body).get("id").asString();
+    }
+
+    private void patchTask(String taskId, String json) throws Exception {
+        mockMvc.perform(authorized(patch("/api/tasks/" + taskId))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json))
+                .andExpect(status().isOk());
+    }
+
+    private MockHttpServletRequestBuilder authorized(MockHttpServletRequestBuilder request) {
+        return request.header(HttpHeaders.AUTHORIZATION, authorization);
+    }
+}
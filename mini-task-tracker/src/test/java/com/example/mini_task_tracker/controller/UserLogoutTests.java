@@ -0,0 +1,91 @@
+package com.example.mini_task_tracker.controller;
+
+import com.example.mini_task_tracker.repository.RevokedTokenRepository;
+import com.example.mini_task_tracker.util.JwtUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * POST /api/users/logout against the local database, for a user of its own that is removed again afterwards.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class UserLogoutTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+
+    private final UUID userId = UUID.randomUUID();
+    private String accessToken;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("INSERT INTO users (id, username, email, hashed_password) VALUES (?, ?, ?, 'x')",
+                userId, "logout_" + userId, "logout_" + userId + "@example.com");
+        accessToken = jwtUtil.generateToken("logout_" + userId + "@example.com", userId.toString());
+    }
+
+    @AfterEach
+    void tearDown() {
+        revokedTokenRepository.deleteById(jwtUtil.verifyToken(accessToken).tokenId());
+        jdbcTemplate.update("DELETE FROM users WHERE id = ?", userId);
+    }
+
+    @Test
+    void logoutRevokesTheAccessToken() throws Exception {
+        mockMvc.perform(get("/api/users/me").header(HttpHeaders.AUTHORIZATION, "Bearer " + accessToken))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(post("/api/users/logout")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + accessToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"refreshToken\":\"" + UUID.randomUUID() + "\"}"))
+                .andExpect(status().isNoContent());
+
+        assertTrue(revokedTokenRepository.existsById(jwtUtil.verifyToken(accessToken).tokenId()));
+        // Still a validly signed, unexpired token, so only the revocation keeps it out; it is now treated like a
+        // request without a token
+        mockMvc.perform(get("/api/users/me").header(HttpHeaders.AUTHORIZATION, "Bearer " + accessToken))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/api/users/me"))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void otherTokensOfTheUserStayValid() throws Exception {
+        String otherToken = jwtUtil.generateToken("logout_" + userId + "@example.com", userId.toString());
+
+        mockMvc.perform(post("/api/users/logout")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + accessToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"refreshToken\":\"" + UUID.randomUUID() + "\"}"))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/api/users/me").header(HttpHeaders.AUTHORIZATION, "Bearer " + otherToken))
+                .andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.mini_task_tracker.repository;
+
+import com.example.mini_task_tracker.entity.Task;
+import com.example.mini_task_tracker.util.TaskCursor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Keyset pages (see TaskRepositoryCustomImpl#buildCursorQueries) have to return the same rows in the same order as
+ * offset pages of the same sort, including across the null keys of nullable columns and ties in the sort key.
+ */
+@SpringBootTest
+class TaskCursorPaginationTests {
+
+    private static final int TASKS = 24;
+    private static final Instant BASE = Instant.parse("2026-01-05T08:00:00Z");
+    private static final String[] PRIORITIES = {"HIGH", "LOW", "MEDIUM"};
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    private final UUID userId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("INSERT INTO users (id, username, email, hashed_password) VALUES (?, ?, ?, 'x')",
+                userId, "cursor_" + userId, "cursor_" + userId + "@example.com");
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < TASKS; i++) {
+            // Every nullable key is null for some tasks, and every key is shared by several of them
+            rows.add(new Object[]{
+                    UUID.randomUUID(),
+                    "task " + i % 7,
+                    i % 2 == 0 ? null : "description " + i % 5,
+                    i % 4 == 0 ? null : PRIORITIES[i % 3],
+                    i % 3 == 0 ? null : Timestamp.from(BASE.plus(Duration.ofDays(i % 4))),
+                    Timestamp.from(BASE.plus(Duration.ofHours(i % 6))),
+                    userId,
+                    i + 1
+            });
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO tasks (id, title, description, priority, due_date, created_at, user_id, " +
+                "change_seq) VALUES (?, ?, ?, ?, ?, ?, ?, ?)", rows);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM users WHERE id = ?", userId);
+    }
+
+    static Stream<Arguments> sorts() {
+        return Stream.of("dueDate", "priority", "description", "createdAt", "title")
+                .flatMap(property -> Stream.of(Sort.Direction.ASC, Sort.Direction.DESC)
+                        .flatMap(direction -> Stream.of(1, 4, 7)
+                                .map(size -> Arguments.of(property, direction, size))));
+    }
+
+    @ParameterizedTest
+    @MethodSource("sorts")
+    void cursorPagesMatchOffsetPages(String property, Sort.Direction direction, int size) {
+        List<UUID> expected = new ArrayList<>();
+        Sort sort = Sort.by(direction, property).and(Sort.by(direction, "id"));
+        Page<Task> page;
+        int pageNumber = 0;
+        do {
+            page = taskRepository.findByUserId(userId, PageRequest.of(pageNumber++, size, sort));
+            page.forEach(task -> expected.add(task.getId()));
+        } while (page.hasNext());
+
+        List<UUID> actual = new ArrayList<>();
+        TaskCursor cursor = null;
+        // Bounded, so that a cursor that stops advancing fails the test instead of hanging it
+        for (int pages = 0; pages <= TASKS; pages++) {
+            // One extra row, as the service fetches, tells whether there is a next page
+            List<Task> tasks = taskRepository.findByUserIdAfterCursor(
+                    userId, null, column(property), direction, cursor, size + 1);
+            List<Task> pageTasks = tasks.subList(0, Math.min(size, tasks.size()));
+            pageTasks.forEach(task -> actual.add(task.getId()));
+            if (tasks.size() <= size) {
+                break;
+            }
+            Task last = pageTasks.get(pageTasks.size() - 1);
+            Object value = sortKey(property).apply(last);
+            cursor = new TaskCursor(property, direction, last.getId(), value != null ? value.toString() : null);
+        }
+
+        assertEquals(TASKS, expected.size());
+        assertEquals(TASKS, new HashSet<>(actual).size(), "cursor pages repeated a task");
+        assertEquals(expected, actual);
+    }
+
+    private static String column(String property) {
+        return switch (property) {
+            case "dueDate" -> "due_date";
+            case "createdAt" -> "created_at";
+            default -> property;
+        };
+    }
+
+    private static Function<Task, Object> sortKey(String property) {
+        return switch (property) {
+            case "dueDate" -> Task::getDueDate;
+            case "priority" -> Task::getPriority;
+            case "description" -> Task::getDescription;
+            case "createdAt" -> Task::getCreatedAt;
+            case "title" -> Task::getTitle;
+            default -> throw new IllegalArgumentException(property);
+        };
+    }
+}
@@ -0,0 +1,330 @@
+package com.example.mini_task_tracker.repository;
+
+import com.example.mini_task_tracker.dto.SearchMode;
+import com.example.mini_task_tracker.dto.TaskFilter;
+import com.example.mini_task_tracker.entity.TaskStatus;
+import com.example.mini_task_tracker.util.SearchQueryUtil;
+import com.example.mini_task_tracker.util.TaskCursor;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Runs EXPLAIN (ANALYZE, BUFFERS) for every combination of filter and index-backed sort (see SORT_FIELDS) that
+ * GET /api/tasks and GET /api/tasks/cursor can produce, against a few million seeded tasks, and fails when a plan
+ * falls back to a sequential scan or sorts more than a page worth of rows. Seeds into its own "query_plans" schema
+ * of the local database.
+ * Run with: ./mvnw test -Pquery-plans [-DqueryPlan.tasks=3000000]
+ */
+@Tag("query-plan")
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:postgresql://localhost:5432/taskdb?stringtype=unspecified&currentSchema=query_plans",
+        "spring.flyway.schemas=query_plans"
+})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class TaskQueryPlanTests {
+
+    private static final int TASKS = Integer.getInteger("queryPlan.tasks", 3_000_000);
+    private static final int USERS = 3_000;
+    // Sorting what a selective filter (e.g. a one month due date range) leaves over is fine; sorting a whole
+    // status or priority bucket of the heavy user (tens of thousands of rows) is not
+    private static final int MAX_SORTED_ROWS = 5_000;
+    private static final int PAGE_SIZE = 25;
+
+    // User 0 owns 5% of all tasks, the rest are spread evenly over the other users
+    private static final UUID HEAVY_USER = UUID.fromString("00000000-0000-0000-0000-000000000000");
+    private static final UUID TYPICAL_USER = UUID.fromString("00000000-0000-0000-0000-000000000007");
+
+    // The index-backed sorts. title, description, status and priority deliberately are not: those sorts top-N sort
+    // all of the user's matching tasks (about 160 ms for the heavy user's 150,000 without filters), which is fine
+    // for sorts lists rarely use, whereas another (user_id, column, id) index each would slow down every task write.
+    // Sorting by userId changes nothing, as every list belongs to one user.
+    private static final List<String> SORT_FIELDS = List.of("createdAt", "updatedAt", "dueDate");
+    private static final Map<String, String> SORT_COLUMNS = Map.of(
+            "createdAt", "created_at",
+            "updatedAt", "updated_at",
+            "dueDate", "due_date"
+    );
+
+    private static final Path REPORT = Path.of("target", "query-plans.txt");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+    private final TaskRepositoryCustomImpl cursorQueries = new TaskRepositoryCustomImpl();
+    private final StringBuilder report = new StringBuilder();
+
+    // Column values are derived from g with different divisors so that they don't correlate with each other
+    // or with the owning user, which is picked by g % 20
+    @BeforeAll
+    void seed() {
+        Integer existing = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM tasks WHERE title LIKE 'Plan task %'", Integer.class);
+        if (existing != null && existing >= TASKS) {
+            // Reused data still needs statistics for anything a newer migration added, and a visibility map again
+            // after a migration that rewrote the rows
+            jdbcTemplate.execute("VACUUM ANALYZE tasks");
+            return;
+        }
+
+        jdbcTemplate.execute("DELETE FROM users WHERE email LIKE 'plan_user_%'");
+        jdbcTemplate.update("""
+                INSERT INTO users (id, username, email, hashed_password)
+                SELECT ('00000000-0000-0000-0000-' || lpad(g::text, 12, '0'))::uuid,
+                       'plan_user_' || g, 'plan_user_' || g || '@example.com', 'x'
+                FROM generate_series(0, ?) g
+                """, USERS - 1);
+        jdbcTemplate.update("""
+                INSERT INTO tasks (id, title, description, status, priority, due_date, created_at, updated_at, user_id, change_seq)
+                SELECT gen_random_uuid(),
+                       'Plan task ' || g || ' ' || (ARRAY['review', 'deploy', 'invoice', 'meeting', 'report', 'design',
+                                                          'release', 'budget', 'audit', 'backup', 'incident', 'hiring',
+                                                          'roadmap', 'training', 'vendor', 'payroll'])[1 + g % 16],
+                       CASE WHEN (g / 13) % 4 = 0 THEN NULL
+                            ELSE 'Follow up on the ' || (ARRAY['client', 'team', 'contract', 'dashboard', 'migration',
+                                                              'analytics', 'support', 'security'])[1 + (g / 7) % 8]
+                       END,
+                       (CASE WHEN (g / 3) % 20 < 12 THEN 'DONE' WHEN (g / 3) % 20 < 17 THEN 'TODO' ELSE 'IN_PROGRESS' END)::task_status,
+                       CASE WHEN (g / 7) % 10 < 2 THEN NULL WHEN (g / 7) % 10 < 5 THEN 'low'
+                            WHEN (g / 7) % 10 < 8 THEN 'medium' ELSE 'high' END,
+                       CASE WHEN (g / 11) % 10 < 3 THEN NULL ELSE TIMESTAMP '2026-01-01' + (g % 730) * INTERVAL '1 day' END,
+                       TIMESTAMP '2024-01-01' + g * INTERVAL '20 seconds',
+                       TIMESTAMP '2024-01-01' + g * INTERVAL '20 seconds' + (g % 97) * INTERVAL '1 hour',
+                       CASE WHEN g % 20 = 0 THEN '00000000-0000-0000-0000-000000000000'::uuid
+                            ELSE ('00000000-0000-0000-0000-' || lpad((1 + g % ?)::text, 12, '0'))::uuid
+                       END,
+                       g
+                FROM generate_series(1, ?) g
+                """, USERS - 1, TASKS);
+        jdbcTemplate.execute("VACUUM ANALYZE tasks");
+    }
+
+    @AfterAll
+    void writeReport() throws IOException {
+        Files.createDirectories(REPORT.getParent());
+        Files.writeString(REPORT, report);
+    }
+
+    Stream<PlanCase> pageQueries() {
+        List<PlanCase> cases = new ArrayList<>();
+        for (UUID user : List.of(HEAVY_USER, TYPICAL_USER)) {
+            for (TaskFilter filter : filters()) {
+                for (String sortBy : SORT_FIELDS) {
+                    for (Sort.Direction direction : Sort.Direction.values()) {
+                        cases.add(offsetPage(user, filter, sortBy, direction));
+                        cases.addAll(cursorPage(user, filter, sortBy, direction));
+                    }
+                }
+                cases.add(count(user, filter));
+            }
+            cases.add(overdueCount(user));
+            cases.add(changes(user));
+        }
+        return cases.stream();
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("pageQueries")
+    void planUsesIndexes(PlanCase planCase) {
+        Map<String, Object> params = new HashMap<>();
+        planCase.params().forEach((name, value) -> params.put(name, value instanceof Instant i ? Timestamp.from(i) : value));
+
+        String json = namedJdbcTemplate.queryForObject(
+                "EXPLAIN (ANALYZE, BUFFERS, FORMAT JSON) " + planCase.sql(), params, String.class);
+        JsonNode plan = jsonMapper.readTree(json).get(0).get("Plan");
+        String text = String.join("\n", namedJdbcTemplate.queryForList(
+                "EXPLAIN (ANALYZE, BUFFERS) " + planCase.sql(), params, String.class));
+        report.append("== ").append(planCase).append('\n').append(text).append("\n\n");
+
+        List<String> problems = new ArrayList<>();
+        collectProblems(plan, planCase.searchDriven(), problems);
+        if (!problems.isEmpty()) {
+            fail(String.join("; ", problems) + "\n" + planCase.sql() + "\n" + text);
+        }
+    }
+
+    private void collectProblems(JsonNode node, boolean searchDriven, List<String> problems) {
+        String type = node.get("Node Type").asString();
+        if (type.equals("Seq Scan") && "tasks".equals(node.path("Relation Name").asString(null))) {
+            problems.add("sequential scan on tasks");
+        }
+        // Full-text matches come out of the GIN index in no particular order, so searches sort their matches:
+        // by relevance on the offset path, by the seek key on the cursor path. The sort is bounded by the number
+        // of matches, not by the user's task count.
+        if (!searchDriven && (type.equals("Sort") || type.equals("Incremental Sort"))) {
+            long sortedRows = 0;
+            for (JsonNode child : node.path("Plans")) {
+                sortedRows += child.get("Actual Rows").asLong() * child.get("Actual Loops").asLong();
+            }
+            if (sortedRows > MAX_SORTED_ROWS) {
+                problems.add("explicit sort of " + sortedRows + " rows");
+            }
+        }
+        for (JsonNode child : node.path("Plans")) {
+            collectProblems(child, searchDriven, problems);
+        }
+    }
+
+    // Every combination of the list filters. Substring search is left out on purpose: it is the
+    // unindexed fallback and always reads all of the user's rows.
+    private List<TaskFilter> filters() {
+        List<TaskFilter> filters = new ArrayList<>();
+        for (TaskStatus status : new TaskStatus[]{null, TaskStatus.TODO}) {
+            for (String priority : new String[]{null, "HIGH"}) {
+                for (String search : new String[]{null, "review"}) {
+                    for (boolean dueRange : new boolean[]{false, true}) {
+                        filters.add(TaskFilter.builder()
+                                .status(status)
+                                .priority(priority)
+                                .search(search)
+                                .searchMode(SearchMode.FULLTEXT)
+                                .dueDateFrom(dueRange ? Instant.parse("2026-06-01T00:00:00Z") : null)
+                                .dueDateTo(dueRange ? Instant.parse("2026-07-01T00:00:00Z") : null)
+                                .build());
+                    }
+                }
+            }
+        }
+        return filters;
+    }
+
+    // Mirrors TaskServiceImpl.getTasksByUserId: derived query without filters, the full-text query when
+    // searching, the filter query otherwise, each with the ORDER BY and paging Spring Data appends
+    private PlanCase offsetPage(UUID user, TaskFilter filter, String sortBy, Sort.Direction direction) {
+        String order = SORT_COLUMNS.get(sortBy) + " " + direction.name().toLowerCase();
+        String page = " OFFSET 0 ROWS FETCH FIRST " + PAGE_SIZE + " ROWS ONLY";
+        String name = "page " + describe(user, filter) + " sort=" + sortBy + " " + direction;
+
+        if (!filter.hasFilters()) {
+            return new PlanCase(name, "SELECT * FROM tasks t WHERE t.user_id = :userId ORDER BY t." + order + page,
+                    Map.of("userId", user), false);
+        }
+        String tsQuery = SearchQueryUtil.toPrefixTsQuery(filter.getSearch());
+        if (tsQuery != null) {
+            return new PlanCase(name, queryOf("findByUserIdWithFullTextSearch", false) + " ORDER BY t.rank DESC, t." + order + page,
+                    filterParams(user, filter, tsQuery), true);
+        }
+        return new PlanCase(name, queryOf("findByUserIdWithFilters", false) + " ORDER BY t." + order + page,
+                filterParams(user, filter, null), false);
+    }
+
+    private PlanCase count(UUID user, TaskFilter filter) {
+        String name = "count " + describe(user, filter);
+        if (!filter.hasFilters()) {
+            return new PlanCase(name, "SELECT COUNT(t.id) FROM tasks t WHERE t.user_id = :userId", Map.of("userId", user), false);
+        }
+        String tsQuery = SearchQueryUtil.toPrefixTsQuery(filter.getSearch());
+        String method = tsQuery != null ? "findByUserIdWithFullTextSearch" : "findByUserIdWithFilters";
+        return new PlanCase(name, queryOf(method, true), filterParams(user, filter, tsQuery), false);
+    }
+
+    // The statistics endpoint's overdue count, served by the partial index on open tasks' due dates
+    private PlanCase overdueCount(UUID user) {
+        return new PlanCase("overdue " + describe(user, TaskFilter.builder().build()),
+                queryOf("countOverdueByUserId", false),
+                Map.of("userId", user, "now", Instant.parse("2026-06-01T00:00:00Z")), false);
+    }
+
+    // A page of the change feed from the middle of the user's change sequence
+    private PlanCase changes(UUID user) {
+        Long since = jdbcTemplate.queryForObject(
+                "SELECT change_seq FROM tasks WHERE user_id = ? ORDER BY change_seq OFFSET (SELECT COUNT(*) / 2 FROM tasks WHERE user_id = ?) LIMIT 1",
+                Long.class, user, user);
+        return new PlanCase("changes " + describe(user, TaskFilter.builder().build()),
+                queryOf("findChangedAfter", false),
+                Map.of("userId", user, "since", since, "limit", 101), false);
+    }
+
+    // A deep page: the cursor sits in the middle of the user's tasks in the requested order
+    private List<PlanCase> cursorPage(UUID user, TaskFilter filter, String sortBy, Sort.Direction direction) {
+        String column = SORT_COLUMNS.get(sortBy);
+        Map<String, Object> middle = jdbcTemplate.queryForMap(
+                "SELECT id, " + column + " AS value FROM tasks WHERE user_id = ? ORDER BY " + column + " "
+                        + direction.name() + ", id " + direction.name() + " OFFSET (SELECT COUNT(*) / 2 FROM tasks WHERE user_id = ?) LIMIT 1",
+                user, user);
+        Object value = middle.get("value");
+        String cursorValue = value == null ? null : ((Timestamp) value).toInstant().toString();
+        TaskCursor cursor = new TaskCursor(sortBy, direction, (UUID) middle.get("id"), cursorValue);
+
+        boolean fullText = SearchQueryUtil.toPrefixTsQuery(filter.getSearch()) != null;
+        List<PlanCase> cases = new ArrayList<>();
+        List<TaskRepositoryCustomImpl.NativeQuery> segments =
+                cursorQueries.buildCursorQueries(user, filter, column, direction, cursor);
+        for (int i = 0; i < segments.size(); i++) {
+            TaskRepositoryCustomImpl.NativeQuery segment = segments.get(i);
+            cases.add(new PlanCase(
+                    "cursor " + describe(user, filter) + " sort=" + sortBy + " " + direction + " segment " + (i + 1),
+                    segment.getSql() + " LIMIT " + (PAGE_SIZE + 1),
+                    segment.getParams(),
+                    fullText));
+        }
+        return cases;
+    }
+
+    private Map<String, Object> filterParams(UUID user, TaskFilter filter, String tsQuery) {
+        Map<String, Object> params = new LinkedHashMap<>();
+        params.put("userId", user);
+        params.put("status", filter.getStatus() != null ? filter.getStatus().name() : null);
+        params.put("priority", filter.getPriority());
+        params.put("search", filter.getSearch());
+        params.put("query", tsQuery);
+        params.put("dueDateFrom", filter.getDueDateFrom());
+        params.put("dueDateTo", filter.getDueDateTo());
+        return params;
+    }
+
+    private static String queryOf(String methodName, boolean countQuery) {
+        for (Method method : TaskRepository.class.getMethods()) {
+            if (method.getName().equals(methodName)) {
+                Query query = method.getAnnotation(Query.class);
+                return countQuery ? query.countQuery() : query.value();
+            }
+        }
+        throw new IllegalArgumentException("No query method " + methodName);
+    }
+
+    private static String describe(UUID user, TaskFilter filter) {
+        return (user.equals(HEAVY_USER) ? "heavy" : "typical")
+                + (filter.getStatus() != null ? " status" : "")
+                + (filter.getPriority() != null ? " priority" : "")
+                + (filter.getSearch() != null ? " search" : "")
+                + (filter.getDueDateFrom() != null ? " dueRange" : "");
+    }
+
+    record PlanCase(String name, String sql, Map<String, Object> params, boolean searchDriven) {
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.mini_task_tracker.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The filter is sized for an expected number of values and a false positive rate; filled up to that number it has
+ * to find every value that was put and report others at about that rate.
+ */
+class BloomFilterTests {
+
+    private static final int EXPECTED = 10_000;
+    private static final int PROBES = 200_000;
+
+    @Test
+    void findsEveryValueThatWasPut() {
+        BloomFilter filter = new BloomFilter(EXPECTED, 0.01);
+        List<String> values = jtis(new Random(1), EXPECTED);
+        values.forEach(filter::put);
+
+        for (String value : values) {
+            assertTrue(filter.mightContain(value), value);
+        }
+    }
+
+    @Test
+    void keepsToTheFalsePositiveRateItWasSizedFor() {
+        for (double rate : new double[]{0.1, 0.01, 0.001}) {
+            BloomFilter filter = new BloomFilter(EXPECTED, rate);
+            jtis(new Random(2), EXPECTED).forEach(filter::put);
+
+            // Different seed, so none of these were put (a collision of random UUIDs is not a concern here)
+            long falsePositives = jtis(new Random(3), PROBES).stream().filter(filter::mightContain).count();
+
+            double observed = (double) falsePositives / PROBES;
+            assertTrue(observed < rate * 1.5, "rate " + rate + " observed " + observed);
+        }
+    }
+
+    @Test
+    void emptyFilterContainsNothing() {
+        BloomFilter filter = new BloomFilter(EXPECTED, 0.01);
+
+        assertEquals(0, jtis(new Random(4), 1000).stream().filter(filter::mightContain).count());
+    }
+
+    // Token ids are random UUIDs; a seeded Random keeps the observed rate the same from run to run
+    private static List<String> jtis(Random random, int count) {
+        List<String> jtis = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            jtis.add(new UUID(random.nextLong(), random.nextLong()).toString());
+        }
+        return jtis;
+    }
+}
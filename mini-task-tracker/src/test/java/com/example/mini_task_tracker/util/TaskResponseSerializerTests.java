@@ -0,0 +1,62 @@
+package com.example.mini_task_tracker.util;
+
+import com.example.mini_task_tracker.dto.TaskResponse;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.Instant;
+import java.time.format.DateTimeFormatter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * The hand-written timestamp formatting has to match {@link DateTimeFormatter#ISO_INSTANT} exactly, or clients would
+ * see a different format depending on which serializer wrote a task.
+ */
+class TaskResponseSerializerTests {
+
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "1970-01-01T00:00:00Z",
+            "2026-01-31T09:15:00Z",
+            "2026-01-31T09:15:00.250Z",
+            "2026-01-31T09:15:00.001Z",
+            "2026-01-31T09:15:00.250100Z",
+            "2026-01-31T09:15:00.000001Z",
+            "2026-01-31T09:15:00.250100300Z",
+            "2026-01-31T09:15:00.000000001Z",
+            "2024-02-29T23:59:59.999999999Z",
+            "1969-12-31T23:59:59.500Z",
+            "0000-01-01T00:00:00Z",
+            "9999-12-31T23:59:59.999999999Z"
+    })
+    void formatsLikeIsoInstant(String value) {
+        Instant instant = Instant.parse(value);
+        char[] buf = new char[30];
+
+        int length = TaskResponseSerializer.formatIsoInstant(instant, buf);
+
+        assertEquals(DateTimeFormatter.ISO_INSTANT.format(instant), new String(buf, 0, length));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "-0001-12-31T23:59:59.999999999Z",
+            "+10000-01-01T00:00:00Z",
+            // Instant.MIN and Instant.MAX, beyond LocalDateTime's range
+            "-1000000000-01-01T00:00:00Z",
+            "+1000000000-12-31T23:59:59.999999999Z"
+    })
+    void fallsBackOutsideFourDigitYears(String value) {
+        Instant instant = Instant.parse(value);
+
+        assertEquals(0, TaskResponseSerializer.formatIsoInstant(instant, new char[30]));
+        TaskResponse task = TaskResponse.builder().createdAt(instant).build();
+        String json = jsonMapper.writeValueAsString(task);
+        assertEquals(DateTimeFormatter.ISO_INSTANT.format(instant),
+                jsonMapper.readTree(json).get("createdAt").asString());
+    }
+}